@@ -10,18 +10,24 @@ import org.shavin.cheaterCheck.commands.ScreenshareCommand;
 import org.shavin.cheaterCheck.commands.SetCheckLocationCommand;
 import org.shavin.cheaterCheck.commands.UnfreezeCommand;
 import org.shavin.cheaterCheck.commands.AnyDeskCommand;
-import org.shavin.cheaterCheck.listeners.FreezeListener;
 import org.shavin.cheaterCheck.listeners.PlayerDisconnectListener;
 import org.shavin.cheaterCheck.listeners.PlayerJoinListener;
 import org.shavin.cheaterCheck.listeners.PlayerDataListener;
+import org.shavin.cheaterCheck.listeners.RecentCheckListener;
 import org.shavin.cheaterCheck.managers.AfkManager;
 import org.shavin.cheaterCheck.managers.CheckManager;
 import org.shavin.cheaterCheck.managers.FreezeManager;
 import org.shavin.cheaterCheck.managers.MessageManager;
+import org.shavin.cheaterCheck.managers.PlayerIndex;
+import org.shavin.cheaterCheck.managers.StaffAudience;
 import org.shavin.cheaterCheck.configs.PluginConfig;
 import org.shavin.cheaterCheck.utils.CheatsConfig;
 import org.shavin.cheaterCheck.utils.Config;
+import org.shavin.cheaterCheck.utils.ConfigWatcher;
 import org.shavin.cheaterCheck.utils.FileManager;
+import org.shavin.cheaterCheck.utils.HttpClientWebhookTransport;
+import org.shavin.cheaterCheck.utils.WebhookDispatcher;
+import org.shavin.cheaterCheck.utils.WebhookTransport;
 
 public final class CheaterCheck extends JavaPlugin {
     
@@ -29,6 +35,8 @@ public final class CheaterCheck extends JavaPlugin {
     private CheckManager checkManager;
     private FreezeManager freezeManager;
     private MessageManager messageManager;
+    private StaffAudience staffAudience;
+    private PlayerIndex playerIndex;
     private Config config;
     private FileManager fileManager;
     private PluginConfig extendedConfig;
@@ -36,6 +44,9 @@ public final class CheaterCheck extends JavaPlugin {
     private AfkManager afkManager;
     private PlayerDataListener playerDataListener;
     private PlayerJoinListener playerJoinListener;
+    private WebhookTransport webhookTransport;
+    private WebhookDispatcher webhookDispatcher;
+    private ConfigWatcher configWatcher;
 
     @Override
     public void onEnable() {
@@ -49,7 +60,12 @@ public final class CheaterCheck extends JavaPlugin {
         cheatsConfig = new CheatsConfig(this);
         
         // Инициализация менеджеров и утилит
+        // Один HTTP клиент на весь плагин: соединения с Discord переиспользуются
+        webhookTransport = new HttpClientWebhookTransport();
+        webhookDispatcher = new WebhookDispatcher(this, webhookTransport, extendedConfig.getDiscordQueueSize());
         messageManager = new MessageManager(this);
+        staffAudience = new StaffAudience(this);
+        playerIndex = new PlayerIndex();
         fileManager = new FileManager(this);
         freezeManager = new FreezeManager(this);
         afkManager = new AfkManager(this);
@@ -57,6 +73,12 @@ public final class CheaterCheck extends JavaPlugin {
         playerDataListener = new PlayerDataListener(this);
         playerJoinListener = new PlayerJoinListener(this);
         
+        // Правки файлов байпаса, команд и читов применяются на лету в фоновом потоке
+        configWatcher = new ConfigWatcher(this);
+        fileManager.registerReloaders(configWatcher);
+        cheatsConfig.registerReloaders(configWatcher);
+        configWatcher.start();
+        
         // Регистрация команд
         if (getCommand("cheatercheck") != null) {
             getCommand("cheatercheck").setExecutor(new CheaterCheckCommand(this));
@@ -90,12 +112,16 @@ public final class CheaterCheck extends JavaPlugin {
         
         // Регистрация слушателей событий
         if (getServer() != null && getServer().getPluginManager() != null) {
-            getServer().getPluginManager().registerEvents(new FreezeListener(this), this);
+            // FreezeListener регистрируется FreezeManager только пока есть замороженные игроки
+            getServer().getPluginManager().registerEvents(new RecentCheckListener(this), this);
             getServer().getPluginManager().registerEvents(new PlayerDisconnectListener(this), this);
             getServer().getPluginManager().registerEvents(playerJoinListener, this);
             getServer().getPluginManager().registerEvents(afkManager, this);
             getServer().getPluginManager().registerEvents(playerDataListener, this);
+            getServer().getPluginManager().registerEvents(staffAudience, this);
+            getServer().getPluginManager().registerEvents(playerIndex, this);
         }
+        staffAudience.startTask();
         
         getLogger().info("CheaterCheck успешно включен!");
     }
@@ -122,6 +148,28 @@ public final class CheaterCheck extends JavaPlugin {
             afkManager.cancelTask();
         }
         
+        if (staffAudience != null) {
+            staffAudience.cancelTask();
+        }
+        
+        // Останавливаем наблюдение за файлами до последней записи байпаса
+        if (configWatcher != null) {
+            configWatcher.close();
+        }
+        
+        // Записываем отложенные изменения списка байпаса
+        if (fileManager != null) {
+            fileManager.flushBypassList();
+        }
+        
+        // Останавливаем отправку вебхуков (после логов о завершении проверок)
+        if (webhookDispatcher != null) {
+            webhookDispatcher.shutdown();
+        }
+        if (webhookTransport != null) {
+            webhookTransport.close();
+        }
+        
         getLogger().info("CheaterCheck выключен!");
     }
     
@@ -141,6 +189,22 @@ public final class CheaterCheck extends JavaPlugin {
             cheatsConfig.reloadConfig();
         }
         
+        if (afkManager != null) {
+            afkManager.reloadSettings();
+        }
+        
+        if (freezeManager != null) {
+            freezeManager.reloadSettings();
+        }
+        
+        if (staffAudience != null) {
+            staffAudience.refresh();
+        }
+        
+        if (playerIndex != null) {
+            playerIndex.rebuild();
+        }
+        
         getLogger().info("CheaterCheck был перезагружен!");
     }
     
@@ -160,6 +224,22 @@ public final class CheaterCheck extends JavaPlugin {
         if (cheatsConfig != null) {
             cheatsConfig.reloadConfig();
         }
+        
+        if (afkManager != null) {
+            afkManager.reloadSettings();
+        }
+        
+        if (freezeManager != null) {
+            freezeManager.reloadSettings();
+        }
+        
+        if (staffAudience != null) {
+            staffAudience.refresh();
+        }
+        
+        if (playerIndex != null) {
+            playerIndex.rebuild();
+        }
     }
     
     // Геттеры для доступа к менеджерам
@@ -178,6 +258,33 @@ public final class CheaterCheck extends JavaPlugin {
     public MessageManager getMessageManager() {
         return messageManager;
     }
+
+    /**
+     * Получает наблюдатель за файлами в папке плагина
+     *
+     * @return Наблюдатель или null, если плагин еще не включен
+     */
+    public ConfigWatcher getConfigWatcher() {
+        return configWatcher;
+    }
+
+    /**
+     * Получает реестр администраторов онлайн по разрешениям
+     *
+     * @return Реестр администраторов
+     */
+    public StaffAudience getStaffAudience() {
+        return staffAudience;
+    }
+
+    /**
+     * Получает индекс имен игроков онлайн для автодополнения
+     *
+     * @return Индекс имен игроков
+     */
+    public PlayerIndex getPlayerIndex() {
+        return playerIndex;
+    }
     
     public Config getPluginConfig() {
         return config;
@@ -223,6 +330,24 @@ public final class CheaterCheck extends JavaPlugin {
         return playerJoinListener;
     }
 
+    /**
+     * Получает диспетчер отправки вебхуков Discord
+     *
+     * @return Диспетчер вебхуков
+     */
+    public WebhookDispatcher getWebhookDispatcher() {
+        return webhookDispatcher;
+    }
+
+    /**
+     * Получает общий HTTP транспорт для отправки вебхуков
+     *
+     * @return Транспорт вебхуков
+     */
+    public WebhookTransport getWebhookTransport() {
+        return webhookTransport;
+    }
+
     /**
      * Отменяет все активные проверки
      */
@@ -1,15 +1,12 @@
 package org.shavin.cheaterCheck.commands;
 
-import org.bukkit.Bukkit;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.event.ClickEvent;
+import net.kyori.adventure.text.event.HoverEvent;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
-import net.md_5.bungee.api.chat.ClickEvent;
-import net.md_5.bungee.api.chat.ComponentBuilder;
-import net.md_5.bungee.api.chat.HoverEvent;
-import net.md_5.bungee.api.chat.TextComponent;
-import net.md_5.bungee.api.ChatColor;
 import org.shavin.cheaterCheck.CheaterCheck;
 import org.shavin.cheaterCheck.utils.ChatUtils;
 
@@ -17,6 +14,8 @@ import org.shavin.cheaterCheck.utils.ChatUtils;
  * Команда для отправки кода AnyDesk
  */
 public class AnyDeskCommand implements CommandExecutor {
+    private static final Component COPY_HINT = ChatUtils.colorizeComponent("&eНажмите, чтобы скопировать код");
+
     private final CheaterCheck plugin;
 
     public AnyDeskCommand(CheaterCheck plugin) {
@@ -95,23 +94,14 @@ public class AnyDeskCommand implements CommandExecutor {
      * @param rawCode Исходный код AnyDesk для копирования
      */
     private void sendAnyDeskCodeToAdmins(String playerName, String formattedCode, String rawCode) {
-        // Создаем кликабельный компонент
-        TextComponent message = new TextComponent(ChatUtils.colorize("&aИгрок &e" + playerName + 
-                " &aотправил код AnyDesk: &a[&2" + formattedCode + "&a]"));
-        
-        // Добавляем событие при наведении мыши
-        message.setHoverEvent(new HoverEvent(HoverEvent.Action.SHOW_TEXT, 
-                new ComponentBuilder(ChatUtils.colorize("&eНажмите, чтобы скопировать код")).create()));
-        
-        // Добавляем событие при клике
-        message.setClickEvent(new ClickEvent(ClickEvent.Action.SUGGEST_COMMAND, rawCode));
+        // Создаем кликабельный компонент один раз для всех администраторов
+        Component message = ChatUtils.colorizeComponent("&aИгрок &e" + playerName +
+                " &aотправил код AnyDesk: &a[&2" + formattedCode + "&a]")
+                .hoverEvent(HoverEvent.showText(COPY_HINT))
+                .clickEvent(ClickEvent.suggestCommand(rawCode));
         
         // Отправляем сообщение всем администраторам
-        for (Player admin : Bukkit.getOnlinePlayers()) {
-            if (admin.hasPermission("cheatercheck.check")) {
-                admin.spigot().sendMessage(message);
-            }
-        }
+        plugin.getStaffAudience().audience("cheatercheck.check").sendMessage(message);
         
         // Логируем в консоль
         plugin.getLogger().info("Игрок " + playerName + " отправил код AnyDesk: " + formattedCode);
@@ -7,6 +7,7 @@ import org.bukkit.command.CommandSender;
 import org.bukkit.command.TabCompleter;
 import org.bukkit.entity.Player;
 import org.shavin.cheaterCheck.CheaterCheck;
+import org.shavin.cheaterCheck.managers.FreezeContext;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -145,7 +146,7 @@ public class CheaterCheckCommand implements CommandExecutor, TabCompleter {
         }
 
         // Замораживаем игрока
-        plugin.getFreezeManager().freezePlayer(target);
+        plugin.getFreezeManager().freezePlayer(target, FreezeContext.command(sender, "cheatercheck freeze"));
         plugin.getMessageManager().sendFrozenStaffMessage(sender, target.getName());
     }
 
@@ -181,7 +182,7 @@ public class CheaterCheckCommand implements CommandExecutor, TabCompleter {
         }
 
         // Размораживаем игрока
-        plugin.getFreezeManager().unfreezePlayer(target);
+        plugin.getFreezeManager().unfreezePlayer(target, FreezeContext.command(sender, "cheatercheck unfreeze"));
         plugin.getMessageManager().sendUnfrozenStaffMessage(sender, target.getName());
     }
 
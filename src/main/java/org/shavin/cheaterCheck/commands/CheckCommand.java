@@ -11,7 +11,10 @@ import org.bukkit.event.Listener;
 import org.bukkit.util.StringUtil;
 import org.shavin.cheaterCheck.CheaterCheck;
 import org.shavin.cheaterCheck.listeners.PlayerJoinListener;
-import org.shavin.cheaterCheck.utils.ChatUtils;
+import org.shavin.cheaterCheck.utils.CheatMatcher;
+import org.shavin.cheaterCheck.utils.CheatTable;
+import org.shavin.cheaterCheck.utils.MessageTemplate;
+import org.shavin.cheaterCheck.utils.PrefixIndex;
 import org.bukkit.Location;
 
 import java.util.ArrayList;
@@ -19,17 +22,19 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 import java.util.Set;
 
 public class CheckCommand implements CommandExecutor, TabCompleter {
     private final CheaterCheck plugin;
     private final List<String> subCommands;
     private final List<String> cheatSubCommands;
+    // Варианты для /check finish: читы и clean. Пересобираются, только когда меняется таблица читов
+    private CheatTable finishTable;
+    private PrefixIndex finishOptions = PrefixIndex.empty();
 
     public CheckCommand(CheaterCheck plugin) {
         this.plugin = plugin;
-        this.subCommands = Arrays.asList("help", "start", "stop", "finish", "reload", "bypass", "debug", "forcecheck", "list", "timestop", "timeadd", "webhook", "tpcheck");
+        this.subCommands = Arrays.asList("help", "start", "stop", "finish", "reload", "bypass", "debug", "forcecheck", "list", "timestop", "timeadd", "webhook", "tpcheck", "spectate");
         this.cheatSubCommands = Arrays.asList("add", "remove", "list");
     }
 
@@ -75,6 +80,8 @@ public class CheckCommand implements CommandExecutor, TabCompleter {
                 return handleWebhookCommand(sender, args);
             case "tpcheck":
                 return handleTpCheckCommand(sender);
+            case "spectate":
+                return handleSpectateCommand(sender, args);
             default:
                 plugin.getMessageManager().sendMessage(sender, "&cНеизвестная подкоманда. Используйте &e/check help &cдля просмотра доступных команд.");
                 return true;
@@ -98,6 +105,7 @@ public class CheckCommand implements CommandExecutor, TabCompleter {
         plugin.getMessageManager().sendMessage(sender, "&e/check list &7- Показать список активных проверок");
         plugin.getMessageManager().sendMessage(sender, "&e/check timestop [игрок] &7- Остановить таймер проверки");
         plugin.getMessageManager().sendMessage(sender, "&e/check timeadd <секунды> [игрок] &7- Добавить время к проверке");
+        plugin.getMessageManager().sendMessage(sender, "&e/check spectate [игрок] &7- Показать/скрыть таймер чужой проверки");
         plugin.getMessageManager().sendMessage(sender, "&e/check tpcheck &7- Установить точку телепортации для проверки");
         plugin.getMessageManager().sendMessage(sender, "&e/check debug &7- Показать отладочную информацию");
         plugin.getMessageManager().sendMessage(sender, "&e/check forcecheck <игрок> &7- Принудительно вызвать игрока на проверку");
@@ -176,11 +184,10 @@ public class CheckCommand implements CommandExecutor, TabCompleter {
         }
 
         // Проверяем, находится ли игрок в списке байпаса
-        if (plugin.getFileManager().isPlayerInBypassList(target.getName())) {
-            String message = plugin.getPluginConfig().getErrorMessage("bypass-list", 
+        if (plugin.getFileManager().isPlayerInBypassList(target.getUniqueId(), target.getName())) {
+            MessageTemplate message = plugin.getPluginConfig().getErrorTemplate("bypass-list",
                     "&cИгрок &e{player} &cнаходится в списке игроков, которых нельзя проверить!");
-            plugin.getMessageManager().sendMessage(sender, 
-                    ChatUtils.replacePlaceholders(message, "{player}", target.getName()));
+            plugin.getMessageManager().sendMessage(sender, message, "{player}", target.getName());
             return true;
         }
 
@@ -354,6 +361,31 @@ public class CheckCommand implements CommandExecutor, TabCompleter {
         boolean isCheating = !args[1].equalsIgnoreCase("clean");
         String cheat = isCheating ? args[1] : null;
 
+        // Сверяем чит с cheats.yml: опечатка не должна молча приводить к стандартной команде бана
+        if (isCheating) {
+            CheatMatcher.Result match = plugin.getCheatsConfig().resolveCheat(cheat);
+            if (match.isAmbiguous()) {
+                plugin.getMessageManager().sendMessage(sender,
+                        "&cЧит &e" + cheat + " &cне найден. Возможно, вы имели в виду: &e"
+                                + String.join("&c, &e", match.getCandidates()));
+                plugin.getMessageManager().sendMessage(sender,
+                        "&cУточните название: &e/check finish <чит> [игрок]");
+                return true;
+            }
+
+            String resolved = match.getBest();
+            if (resolved == null) {
+                plugin.getMessageManager().sendMessage(sender,
+                        "&eЧит &6" + cheat + " &eне найден в cheats.yml, будет использована стандартная команда бана.");
+            } else {
+                if (match.getDistance() > 0) {
+                    plugin.getMessageManager().sendMessage(sender,
+                            "&eЧит &6" + cheat + " &eне найден, используется &6" + resolved + "&e.");
+                }
+                cheat = resolved;
+            }
+        }
+
         // Если не удалось определить игрока
         if (target == null) {
             if (checkedPlayers.size() > 1) {
@@ -475,7 +507,7 @@ public class CheckCommand implements CommandExecutor, TabCompleter {
         }
         
         // Добавляем игрока в список байпаса
-        if (plugin.getFileManager().addPlayerToBypassList(playerName)) {
+        if (plugin.getFileManager().addPlayerToBypassList(playerName, targetPlayer.getUniqueId())) {
             plugin.getMessageManager().sendMessage(sender, 
                     "&aИгрок &e" + playerName + " &aдобавлен в список байпаса.");
         } else {
@@ -550,6 +582,13 @@ public class CheckCommand implements CommandExecutor, TabCompleter {
             plugin.getMessageManager().sendMessage(sender, "&7" + line);
         }
         
+        // Метрики отправки вебхуков Discord
+        if (plugin.getWebhookDispatcher() != null) {
+            for (String line : plugin.getWebhookDispatcher().getDebugInfo().split("\n")) {
+                plugin.getMessageManager().sendMessage(sender, "&7" + line);
+            }
+        }
+        
         plugin.getMessageManager().sendMessage(sender, "&e=============================");
         
         return true;
@@ -590,11 +629,10 @@ public class CheckCommand implements CommandExecutor, TabCompleter {
         }
 
         // Проверяем, находится ли игрок в списке байпаса
-        if (plugin.getFileManager().isPlayerInBypassList(target.getName())) {
-            String message = plugin.getPluginConfig().getErrorMessage("bypass-list", 
+        if (plugin.getFileManager().isPlayerInBypassList(target.getUniqueId(), target.getName())) {
+            MessageTemplate message = plugin.getPluginConfig().getErrorTemplate("bypass-list",
                     "&cИгрок &e{player} &cнаходится в списке игроков, которых нельзя проверить!");
-            plugin.getMessageManager().sendMessage(sender, 
-                    ChatUtils.replacePlaceholders(message, "{player}", target.getName()));
+            plugin.getMessageManager().sendMessage(sender, message, "{player}", target.getName());
             return true;
         }
 
@@ -694,6 +732,47 @@ public class CheckCommand implements CommandExecutor, TabCompleter {
         return plugin.getCheckManager().setTimePause(sender, targetPlayer, pause);
     }
     
+    /**
+     * Обрабатывает команду /check spectate [игрок]
+     *
+     * @param sender Отправитель команды
+     * @param args Аргументы команды
+     * @return true, если команда выполнена успешно
+     */
+    private boolean handleSpectateCommand(CommandSender sender, String[] args) {
+        // Проверка прав
+        if (!sender.hasPermission("cheatercheck.admin") && !sender.hasPermission("cheatercheck.check")) {
+            plugin.getMessageManager().sendNoPermissionMessage(sender);
+            return true;
+        }
+        
+        if (!(sender instanceof Player)) {
+            plugin.getMessageManager().sendMessage(sender, "&cЭта команда доступна только для игроков!");
+            return true;
+        }
+        
+        Player targetPlayer;
+        if (args.length > 1) {
+            targetPlayer = Bukkit.getPlayer(args[1]);
+            if (targetPlayer == null) {
+                plugin.getMessageManager().sendPlayerNotFoundMessage(sender);
+                return true;
+            }
+        } else {
+            // Без имени подходит только единственная активная проверка
+            Set<UUID> checkedPlayers = plugin.getCheckManager().getCheckedPlayers();
+            if (checkedPlayers.size() != 1) {
+                plugin.getMessageManager().sendMessage(sender, 
+                        "&cУкажите игрока: &e/check spectate <игрок>");
+                return true;
+            }
+            targetPlayer = Bukkit.getPlayer(checkedPlayers.iterator().next());
+        }
+        
+        plugin.getCheckManager().toggleSpectator((Player) sender, targetPlayer);
+        return true;
+    }
+    
     /**
      * Обрабатывает команду /check timeadd <секунды>
      *
@@ -921,9 +1000,7 @@ public class CheckCommand implements CommandExecutor, TabCompleter {
                 case "forcecheck":
                     // Предлагаем имена онлайн игроков
                     if (sender.hasPermission("cheatercheck.check.start")) {
-                        completions.addAll(Bukkit.getOnlinePlayers().stream()
-                                .map(Player::getName)
-                                .collect(Collectors.toList()));
+                        return plugin.getPlayerIndex().complete(args[1]);
                     }
                     break;
                 case "stop":
@@ -932,12 +1009,14 @@ public class CheckCommand implements CommandExecutor, TabCompleter {
                         completions.addAll(plugin.getCheckManager().getCheckedPlayerNames());
                     }
                     break;
+                case "spectate":
+                    // Предлагаем имена проверяемых игроков
+                    StringUtil.copyPartialMatches(args[1], plugin.getCheckManager().getCheckedPlayerNames(), completions);
+                    break;
                 case "finish":
                     // Предлагаем известные читы и 'clean'
                     if (sender.hasPermission("cheatercheck.check.finish")) {
-                        List<String> options = new ArrayList<>(plugin.getCheatsConfig().getDefinedCheats());
-                        options.add("clean");
-                        StringUtil.copyPartialMatches(args[1], options, completions);
+                        return getFinishOptions().complete(args[1]);
                     }
                     break;
                 case "bypass":
@@ -964,15 +1043,12 @@ public class CheckCommand implements CommandExecutor, TabCompleter {
                 if (args[1].equalsIgnoreCase("add")) {
                     // Предлагаем имена онлайн игроков для добавления в байпас
                     if (sender.hasPermission("cheatercheck.bypass")) {
-                        completions.addAll(Bukkit.getOnlinePlayers().stream()
-                                .map(Player::getName)
-                                .filter(name -> !plugin.getFileManager().isPlayerInBypassList(name))
-                                .collect(Collectors.toList()));
+                        return plugin.getPlayerIndex().complete(args[2], plugin.getFileManager()::isPlayerInBypassList);
                     }
                 } else if (args[1].equalsIgnoreCase("remove")) {
                     // Предлагаем имена игроков из списка байпаса
                     if (sender.hasPermission("cheatercheck.bypass")) {
-                        completions.addAll(plugin.getFileManager().getBypassList());
+                        return plugin.getFileManager().completeBypassList(args[2]);
                     }
                 }
             } else if (args[0].equalsIgnoreCase("finish")) {
@@ -986,4 +1062,16 @@ public class CheckCommand implements CommandExecutor, TabCompleter {
         Collections.sort(completions);
         return completions;
     }
+
+    /**
+     * Возвращает индекс вариантов для /check finish, пересобирая его после перезагрузки cheats.yml
+     */
+    private PrefixIndex getFinishOptions() {
+        CheatTable table = plugin.getCheatsConfig().getCheatTable();
+        if (table != finishTable) {
+            finishOptions = table.getNameIndex().with("clean");
+            finishTable = table;
+        }
+        return finishOptions;
+    }
 } 
\ No newline at end of file
@@ -7,10 +7,10 @@ import org.bukkit.command.CommandSender;
 import org.bukkit.command.TabCompleter;
 import org.bukkit.entity.Player;
 import org.shavin.cheaterCheck.CheaterCheck;
+import org.shavin.cheaterCheck.managers.FreezeContext;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 public class FreezeCommand implements CommandExecutor, TabCompleter {
     private final CheaterCheck plugin;
@@ -55,7 +55,7 @@ public class FreezeCommand implements CommandExecutor, TabCompleter {
         }
 
         // Замораживаем игрока
-        plugin.getFreezeManager().freezePlayer(target);
+        plugin.getFreezeManager().freezePlayer(target, FreezeContext.command(sender, "freeze"));
         plugin.getMessageManager().sendFrozenStaffMessage(sender, target.getName());
 
         return true;
@@ -68,10 +68,7 @@ public class FreezeCommand implements CommandExecutor, TabCompleter {
         }
 
         if (args.length == 1) {
-            return Bukkit.getOnlinePlayers().stream()
-                    .map(Player::getName)
-                    .filter(name -> name.toLowerCase().startsWith(args[0].toLowerCase()))
-                    .collect(Collectors.toList());
+            return plugin.getPlayerIndex().complete(args[0]);
         }
 
         return new ArrayList<>();
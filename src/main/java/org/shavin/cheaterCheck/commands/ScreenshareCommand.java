@@ -8,10 +8,10 @@ import org.bukkit.command.TabCompleter;
 import org.bukkit.entity.Player;
 import org.shavin.cheaterCheck.CheaterCheck;
 import org.shavin.cheaterCheck.utils.ChatUtils;
+import org.shavin.cheaterCheck.utils.MessageTemplate;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Обработчик команды /screenshare и /ss
@@ -67,18 +67,16 @@ public class ScreenshareCommand implements CommandExecutor, TabCompleter {
                     (sender instanceof Player ? ((Player) sender).getName() : "Console"));
             
             // Сообщение отправителю, что скриншер запрошен
-            String requestSentMessage = plugin.getPluginConfig().getScreenshareMessage("request-sent", 
+            MessageTemplate requestSentMessage = plugin.getPluginConfig().getScreenshareTemplate("request-sent",
                     "&aЗапрос скриншера отправлен игроку &e{player}&a.");
-            plugin.getMessageManager().sendMessage(sender, 
-                    ChatUtils.replacePlaceholders(requestSentMessage, "{player}", target.getName()));
+            plugin.getMessageManager().sendMessage(sender, requestSentMessage, "{player}", target.getName());
             
             // Сообщение игроку с инструкциями
             String discordLink = plugin.getConfig().getString("discord-link", "");
-            String receivedMessage = plugin.getPluginConfig().getScreenshareMessage("request-received", 
+            MessageTemplate receivedMessage = plugin.getPluginConfig().getScreenshareTemplate("request-received",
                     "&c&lВы должны предоставить скриншер! &7Используйте Discord: &b&l{discord}");
             
-            plugin.getMessageManager().sendMessage(target, 
-                    ChatUtils.replacePlaceholders(receivedMessage, "{discord}", discordLink));
+            plugin.getMessageManager().sendMessage(target, receivedMessage, "{discord}", discordLink);
             
             // Отправляем Title игроку
             target.sendTitle(
@@ -111,11 +109,7 @@ public class ScreenshareCommand implements CommandExecutor, TabCompleter {
         
         // Автодополнение имени игрока
         if (args.length == 1) {
-            String partialName = args[0].toLowerCase();
-            completions = Bukkit.getOnlinePlayers().stream()
-                    .map(Player::getName)
-                    .filter(name -> name.toLowerCase().startsWith(partialName))
-                    .collect(Collectors.toList());
+            completions = plugin.getPlayerIndex().complete(args[0]);
         }
         
         return completions;
@@ -7,6 +7,7 @@ import org.bukkit.command.CommandSender;
 import org.bukkit.command.TabCompleter;
 import org.bukkit.entity.Player;
 import org.shavin.cheaterCheck.CheaterCheck;
+import org.shavin.cheaterCheck.managers.FreezeContext;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -50,7 +51,7 @@ public class UnfreezeCommand implements CommandExecutor, TabCompleter {
         }
 
         // Размораживаем игрока
-        plugin.getFreezeManager().unfreezePlayer(target);
+        plugin.getFreezeManager().unfreezePlayer(target, FreezeContext.command(sender, "unfreeze"));
         plugin.getMessageManager().sendUnfrozenStaffMessage(sender, target.getName());
 
         // Если игрок находится на проверке, завершаем её
@@ -6,6 +6,7 @@ import org.bukkit.World;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.shavin.cheaterCheck.CheaterCheck;
+import org.shavin.cheaterCheck.utils.WebhookTemplates;
 
 import java.util.Arrays;
 import java.util.Collections;
@@ -45,6 +46,8 @@ public class PluginConfig {
     private boolean discordLoggingEnabled;
     private String discordAvatarUrl;
     private String discordUsername;
+    private int discordQueueSize;
+    private volatile WebhookTemplates webhookTemplates;
 
     public PluginConfig(CheaterCheck plugin) {
         this.plugin = plugin;
@@ -92,6 +95,9 @@ public class PluginConfig {
         discordWebhookUrl = config.getString("discord.webhook.url", "");
         discordAvatarUrl = config.getString("discord.webhook.avatar-url", "https://i.imgur.com/Bzyxsoz.png");
         discordUsername = config.getString("discord.webhook.username", "CheaterCheck");
+        discordQueueSize = config.getInt("discord.webhook.queue-size", 1000);
+        // Шаблоны собираются целиком и публикуются одной записью
+        webhookTemplates = WebhookTemplates.compile(plugin, discordWebhookUrl, discordUsername, discordAvatarUrl);
     }
 
     /**
@@ -454,6 +460,15 @@ public class PluginConfig {
         return discordWebhookUrl;
     }
     
+    /**
+     * Получает максимальный размер очереди сообщений Discord
+     *
+     * @return Размер очереди
+     */
+    public int getDiscordQueueSize() {
+        return discordQueueSize;
+    }
+    
     /**
      * Устанавливает URL вебхука Discord
      *
@@ -461,9 +476,12 @@ public class PluginConfig {
      */
     public void setDiscordWebhookUrl(String webhookUrl) {
         this.discordWebhookUrl = webhookUrl;
+        this.discordLoggingEnabled = !webhookUrl.isEmpty();
         config.set("discord.webhook.url", webhookUrl);
-        config.set("discord.logging.enabled", !webhookUrl.isEmpty());
+        config.set("discord.logging.enabled", discordLoggingEnabled);
         plugin.saveConfig();
+        // Отправки читают URL из шаблонов, поэтому новый адрес начинает работать сразу, без /check reload
+        webhookTemplates = WebhookTemplates.compile(plugin, webhookUrl, discordUsername, discordAvatarUrl);
     }
     
     /**
@@ -483,4 +501,13 @@ public class PluginConfig {
     public String getDiscordUsername() {
         return discordUsername;
     }
+
+    /**
+     * Получает скомпилированные шаблоны логов Discord
+     *
+     * @return Шаблоны логов
+     */
+    public WebhookTemplates getWebhookTemplates() {
+        return webhookTemplates;
+    }
 } 
\ No newline at end of file
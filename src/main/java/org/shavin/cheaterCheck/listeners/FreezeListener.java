@@ -1,6 +1,7 @@
 package org.shavin.cheaterCheck.listeners;
 
 import org.bukkit.Location;
+import org.bukkit.block.Block;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
@@ -9,6 +10,7 @@ import org.bukkit.event.block.BlockBreakEvent;
 import org.bukkit.event.block.BlockPlaceEvent;
 import org.bukkit.event.entity.EntityDamageByEntityEvent;
 import org.bukkit.event.entity.EntityDamageEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.player.PlayerCommandPreprocessEvent;
 import org.bukkit.event.player.PlayerDropItemEvent;
@@ -17,6 +19,11 @@ import org.bukkit.event.player.PlayerMoveEvent;
 import org.bukkit.event.player.PlayerTeleportEvent;
 import org.shavin.cheaterCheck.CheaterCheck;
 
+/**
+ * Слушатель ограничений для замороженных игроков.
+ * Регистрируется {@link org.shavin.cheaterCheck.managers.FreezeManager} только пока заморожен
+ * хотя бы один игрок, поэтому при отсутствии заморозок не влияет на обработку событий
+ */
 public class FreezeListener implements Listener {
     private final CheaterCheck plugin;
 
@@ -52,7 +59,7 @@ public class FreezeListener implements Listener {
                 // Отправляем сообщение не слишком часто
                 if (Math.random() < 0.1) {
                     plugin.getMessageManager().sendMessage(player, 
-                            plugin.getPluginConfig().getFreezeMessage("prevent-movement", 
+                            plugin.getPluginConfig().getFreezeTemplate("prevent-movement",
                                     "&cВы не можете двигаться во время проверки!"));
                 }
             }
@@ -77,6 +84,7 @@ public class FreezeListener implements Listener {
                         " (найдены метаданные cheatercheck_teleport)");
                 // Если телепортация инициирована CheckManager, разрешаем её
                 player.removeMetadata("cheatercheck_teleport", plugin);
+                plugin.getFreezeManager().invalidateGroundCache(player.getUniqueId());
                 return;
             }
             
@@ -85,7 +93,7 @@ public class FreezeListener implements Listener {
             event.setCancelled(true);
             
             plugin.getMessageManager().sendMessage(player, 
-                    plugin.getPluginConfig().getFreezeMessage("prevent-movement", 
+                    plugin.getPluginConfig().getFreezeTemplate("prevent-movement",
                             "&cВы не можете телепортироваться во время проверки!"));
         }
     }
@@ -148,11 +156,6 @@ public class FreezeListener implements Listener {
             plugin.getMessageManager().sendMessage(player, 
                     plugin.getPluginConfig().getFreezeMessage("prevent-interaction", 
                             "&cВы не можете выбрасывать предметы во время проверки!"));
-        } else if (plugin.getCheckManager().isRecentlyChecked(player.getUniqueId())) {
-            // Блокируем выбрасывание предметов для недавно проверенных игроков
-            event.setCancelled(true);
-            plugin.getMessageManager().sendMessage(player, 
-                    "&cВы не можете выбрасывать предметы в течение 10 секунд после проверки!");
         }
     }
 
@@ -169,11 +172,6 @@ public class FreezeListener implements Listener {
             plugin.getMessageManager().sendMessage(player, 
                     plugin.getPluginConfig().getFreezeMessage("prevent-interaction", 
                             "&cВы не можете подбирать предметы во время проверки!"));
-        } else if (plugin.getCheckManager().isRecentlyChecked(player.getUniqueId())) {
-            // Блокируем подбор предметов для недавно проверенных игроков
-            event.setCancelled(true);
-            plugin.getMessageManager().sendMessage(player, 
-                    "&cВы не можете подбирать предметы в течение 10 секунд после проверки!");
         }
     }
 
@@ -209,6 +207,36 @@ public class FreezeListener implements Listener {
         }
     }
 
+    /**
+     * Сбрасывает кеш проверки земли при разрушении блока в столбце замороженного игрока
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockBreakMonitor(BlockBreakEvent event) {
+        invalidateColumn(event.getBlock());
+    }
+
+    /**
+     * Сбрасывает кеш проверки земли при установке блока в столбце замороженного игрока
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockPlaceMonitor(BlockPlaceEvent event) {
+        invalidateColumn(event.getBlock());
+    }
+
+    /**
+     * Сбрасывает кеш проверки земли для столбцов, затронутых взрывом
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEntityExplode(EntityExplodeEvent event) {
+        for (Block block : event.blockList()) {
+            invalidateColumn(block);
+        }
+    }
+
+    private void invalidateColumn(Block block) {
+        plugin.getFreezeManager().invalidateGroundColumn(block.getWorld(), block.getX(), block.getZ());
+    }
+
     /**
      * Обрабатывает получение урона
      */
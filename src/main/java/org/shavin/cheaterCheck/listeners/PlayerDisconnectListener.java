@@ -22,6 +22,9 @@ public class PlayerDisconnectListener implements Listener {
     public void onPlayerQuit(PlayerQuitEvent event) {
         Player player = event.getPlayer();
         
+        // Администратор больше не наблюдает за проверками
+        plugin.getCheckManager().removeSpectator(player);
+        
         // Проверяем, находится ли игрок на проверке или заморожен
         if (plugin.getFreezeManager().isFrozen(player) || 
                 plugin.getCheckManager().isBeingChecked(player.getUniqueId())) {
@@ -38,6 +41,9 @@ public class PlayerDisconnectListener implements Listener {
     public void onPlayerKick(PlayerKickEvent event) {
         Player player = event.getPlayer();
         
+        // Администратор больше не наблюдает за проверками
+        plugin.getCheckManager().removeSpectator(player);
+        
         // Проверяем, находится ли игрок на проверке или заморожен
         if (plugin.getFreezeManager().isFrozen(player) || 
                 plugin.getCheckManager().isBeingChecked(player.getUniqueId())) {
@@ -6,10 +6,9 @@ import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.event.player.PlayerInteractEvent;
-import org.bukkit.event.player.AsyncPlayerChatEvent;
 import org.bukkit.event.player.PlayerCommandPreprocessEvent;
-import org.bukkit.scheduler.BukkitRunnable;
 import org.shavin.cheaterCheck.CheaterCheck;
 
 import java.util.HashMap;
@@ -27,47 +26,24 @@ public class PlayerJoinListener implements Listener {
         this.plugin = plugin;
         this.pendingAfkChecks = new HashMap<>();
         
-        // Запускаем задачу для периодической проверки выхода из AFK
-        startAfkCheckTask();
+        // Вызываем ожидающих проверки игроков в момент выхода из AFK
+        plugin.getAfkManager().addAfkExitListener(this::onAfkExit);
     }
     
     /**
-     * Запускает задачу для проверки выхода из AFK и автоматического вызова на проверку
-     */
-    private void startAfkCheckTask() {
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                checkPendingAfkPlayers();
-            }
-        }.runTaskTimer(plugin, 1L, 1L); // Проверяем каждый тик для мгновенной реакции
-    }
-    
-    /**
-     * Проверяет всех игроков, ожидающих проверки после выхода из AFK
+     * Обрабатывает выход игрока из AFK и вызывает его на проверку, если она ожидалась
+     *
+     * @param player Игрок, вышедший из AFK
      */
-    private void checkPendingAfkPlayers() {
-        // Создаем копию списка, чтобы избежать ConcurrentModificationException
-        Map<UUID, String> pendingChecks = new HashMap<>(pendingAfkChecks);
+    private void onAfkExit(Player player) {
+        if (pendingAfkChecks.isEmpty()) {
+            return;
+        }
         
-        for (Map.Entry<UUID, String> entry : pendingChecks.entrySet()) {
-            UUID playerUuid = entry.getKey();
-            String staffName = entry.getValue();
-            
-            Player player = plugin.getServer().getPlayer(playerUuid);
-            if (player != null && player.isOnline()) {
-                // Проверяем, вышел ли игрок из AFK
-                if (!plugin.getAfkManager().isPlayerAfk(player)) {
-                    // Удаляем из списка ожидающих
-                    pendingAfkChecks.remove(playerUuid);
-                    
-                    // Вызываем на проверку немедленно
-                    startCheckAfterAfk(player, staffName);
-                }
-            } else {
-                // Если игрок вышел с сервера, удаляем его из списка ожидающих
-                pendingAfkChecks.remove(playerUuid);
-            }
+        String staffName = pendingAfkChecks.remove(player.getUniqueId());
+        if (staffName != null && player.isOnline()) {
+            // Вызываем на проверку немедленно
+            startCheckAfterAfk(player, staffName);
         }
     }
     
@@ -142,6 +118,14 @@ public class PlayerJoinListener implements Listener {
         }
     }
     
+    /**
+     * Удаляет вышедшего игрока из списка ожидающих проверки после выхода из AFK
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        pendingAfkChecks.remove(event.getPlayer().getUniqueId());
+    }
+    
     /**
      * Обрабатывает движение игрока
      */
@@ -167,17 +151,6 @@ public class PlayerJoinListener implements Listener {
         plugin.getAfkManager().updatePlayerActivity(event.getPlayer());
     }
     
-    /**
-     * Обрабатывает сообщения в чате
-     */
-    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
-    public void onPlayerChat(AsyncPlayerChatEvent event) {
-        // Обновляем активность игрока в основном потоке сервера
-        plugin.getServer().getScheduler().runTask(plugin, () -> {
-            plugin.getAfkManager().updatePlayerActivity(event.getPlayer());
-        });
-    }
-    
     /**
      * Обрабатывает команды игрока
      */
@@ -194,6 +167,8 @@ public class PlayerJoinListener implements Listener {
      * @param staffName Имя администратора, который вызвал проверку
      */
     public void addPendingAfkCheck(Player player, String staffName) {
+        // Синхронизируем статус AFK, чтобы выход из него был гарантированно замечен
+        plugin.getAfkManager().flushExpiredDeadlines();
         pendingAfkChecks.put(player.getUniqueId(), staffName);
         plugin.getLogger().info("Игрок " + player.getName() + " добавлен в список ожидающих проверки после выхода из AFK (инициатор: " + staffName + ")");
     }
@@ -0,0 +1,51 @@
+package org.shavin.cheaterCheck.listeners;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerDropItemEvent;
+import org.bukkit.event.player.PlayerPickupItemEvent;
+import org.shavin.cheaterCheck.CheaterCheck;
+
+/**
+ * Слушатель ограничений для недавно проверенных игроков
+ * (запрет выбрасывания и подбора предметов после завершения проверки)
+ */
+public class RecentCheckListener implements Listener {
+    private final CheaterCheck plugin;
+
+    public RecentCheckListener(CheaterCheck plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Обрабатывает выбрасывание предметов
+     */
+    @EventHandler(priority = EventPriority.HIGHEST)
+    public void onItemDrop(PlayerDropItemEvent event) {
+        Player player = event.getPlayer();
+        
+        if (plugin.getCheckManager().isRecentlyChecked(player.getUniqueId())) {
+            // Блокируем выбрасывание предметов для недавно проверенных игроков
+            event.setCancelled(true);
+            plugin.getMessageManager().sendMessage(player, 
+                    "&cВы не можете выбрасывать предметы в течение 10 секунд после проверки!");
+        }
+    }
+
+    /**
+     * Обрабатывает поднятие предметов
+     */
+    @EventHandler(priority = EventPriority.HIGHEST)
+    public void onItemPickup(PlayerPickupItemEvent event) {
+        Player player = event.getPlayer();
+        
+        if (plugin.getCheckManager().isRecentlyChecked(player.getUniqueId())) {
+            // Блокируем подбор предметов для недавно проверенных игроков
+            event.setCancelled(true);
+            plugin.getMessageManager().sendMessage(player, 
+                    "&cВы не можете подбирать предметы в течение 10 секунд после проверки!");
+        }
+    }
+}
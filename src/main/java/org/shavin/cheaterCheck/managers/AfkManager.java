@@ -20,29 +20,57 @@ import org.bukkit.event.block.Action;
 import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.scheduler.BukkitTask;
 import org.shavin.cheaterCheck.CheaterCheck;
+import org.shavin.cheaterCheck.utils.ActivityStore;
+import org.shavin.cheaterCheck.utils.DeadlineQueue;
 
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 /**
  * Менеджер для отслеживания AFK статуса игроков
  */
 public class AfkManager implements Listener {
     private final CheaterCheck plugin;
-    private final Map<UUID, Long> lastActivity;
+    private final ActivityStore activity;
     private final Set<UUID> afkPlayers;
+    private final DeadlineQueue deadlines;
+    private final List<Consumer<Player>> afkExitListeners = new ArrayList<>();
+    private final Consumer<UUID> asyncActivityHandler = this::handleAsyncActivity;
+    private volatile boolean afkCheckEnabled;
+    private volatile boolean debugEnabled;
+    private volatile long currentTimeoutMillis;
     private BukkitTask afkCheckTask;
 
     public AfkManager(CheaterCheck plugin) {
         this.plugin = plugin;
-        this.lastActivity = new HashMap<>();
-        this.afkPlayers = new HashSet<>();
+        this.activity = new ActivityStore();
+        this.afkPlayers = ConcurrentHashMap.newKeySet();
+        this.deadlines = new DeadlineQueue();
         
-        // Запускаем задачу проверки AFK, если это включено в конфигурации
-        if (plugin.getPluginConfig().isAfkCheckEnabled()) {
+        // Загружаем настройки и запускаем задачу проверки AFK, если это включено в конфигурации
+        reloadSettings();
+    }
+
+    /**
+     * Перечитывает настройки AFK из конфигурации.
+     * Вызывается при загрузке и перезагрузке плагина
+     */
+    public void reloadSettings() {
+        afkCheckEnabled = plugin.getPluginConfig().isAfkCheckEnabled();
+        debugEnabled = plugin.getPluginConfig().isAfkDebugEnabled();
+        
+        long afkTimeoutMillis = plugin.getPluginConfig().getAfkTimeout() * 1000L;
+        if (afkTimeoutMillis != currentTimeoutMillis) {
+            // Порог изменился - пересчитываем все дедлайны
+            currentTimeoutMillis = afkTimeoutMillis;
+            rescheduleAll();
+        }
+        
+        if (afkCheckEnabled && afkCheckTask == null) {
             startAfkCheckTask();
         }
     }
@@ -56,23 +84,24 @@ public class AfkManager implements Listener {
             afkCheckTask.cancel();
         }
         
-        // Счетчик для ограничения частоты логирования
-        final int[] logCounter = {0};
+        // Регистрируем игроков, которые уже находятся на сервере (например, после перезагрузки плагина)
+        long currentTime = System.currentTimeMillis();
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            UUID playerUuid = player.getUniqueId();
+            if (!activity.contains(playerUuid)) {
+                activity.register(playerUuid, currentTime);
+            }
+            if (!afkPlayers.contains(playerUuid)) {
+                scheduleDeadline(playerUuid);
+            }
+        }
         
-        // Запускаем новую задачу проверки каждый тик для мгновенной реакции
+        // Запускаем новую задачу проверки каждый тик для мгновенной реакции.
+        // За тик обрабатываются только игроки, чей дедлайн действительно истек
         afkCheckTask = new BukkitRunnable() {
             @Override
             public void run() {
-                // Увеличиваем счетчик с каждым тиком
-                logCounter[0]++;
-                
-                // Выполняем обновление статуса AFK с ограниченным логированием
-                updateAfkStatus(logCounter[0] % 100 == 0); // Логировать только каждые 5 секунд (100 тиков)
-                
-                // Сбрасываем счетчик, чтобы избежать переполнения
-                if (logCounter[0] >= 1000) {
-                    logCounter[0] = 0;
-                }
+                updateAfkStatus();
             }
         }.runTaskTimer(plugin, 1L, 1L); // Проверяем каждый тик
         
@@ -86,61 +115,133 @@ public class AfkManager implements Listener {
     }
 
     /**
-     * Обновляет AFK статус всех игроков
+     * Переводит в режим AFK игроков с истекшим дедлайном.
+     * Активность игроков не трогает очередь: время активности лишь записывается,
+     * а при истечении дедлайна он пересчитывается от последней активности
      */
     private void updateAfkStatus() {
-        updateAfkStatus(false); // По умолчанию без логирования
-    }
-    
-    /**
-     * Обновляет AFK статус всех игроков с опциональным логированием
-     * 
-     * @param enableLogging включить подробное логирование
-     */
-    private void updateAfkStatus(boolean enableLogging) {
-        if (!plugin.getPluginConfig().isAfkCheckEnabled()) {
+        // Разбираем активность, накопленную асинхронными потоками (чат) с прошлого тика
+        activity.drainPending(asyncActivityHandler);
+        
+        if (!afkCheckEnabled) {
             return;
         }
         
+        long afkTimeoutMillis = currentTimeoutMillis;
         long currentTime = System.currentTimeMillis();
-        int afkTimeoutMillis = plugin.getPluginConfig().getAfkTimeout() * 1000;
-        
-        // Обрабатываем всех онлайн игроков
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            UUID playerUuid = player.getUniqueId();
-            
-            // Если у игрока нет записи активности, создаем ее с текущим временем
-            if (!lastActivity.containsKey(playerUuid)) {
-                lastActivity.put(playerUuid, currentTime);
+        while (deadlines.peekDeadline() <= currentTime) {
+            UUID playerUuid = deadlines.peekKey();
+            long lastActiveTime = activity.get(playerUuid);
+            if (lastActiveTime == ActivityStore.ABSENT) {
+                deadlines.poll();
                 continue;
             }
             
-            long lastActiveTime = lastActivity.get(playerUuid);
-            long inactiveTime = currentTime - lastActiveTime;
-            boolean isCurrentlyAfk = afkPlayers.contains(playerUuid);
-            boolean shouldBeAfk = inactiveTime >= afkTimeoutMillis;
+            long actualDeadline = lastActiveTime + afkTimeoutMillis;
+            if (actualDeadline > currentTime) {
+                // Игрок был активен после постановки дедлайна - переносим его
+                deadlines.schedule(playerUuid, actualDeadline);
+                continue;
+            }
             
-            // Проверяем наличие изменений в статусе
-            if (isCurrentlyAfk && !shouldBeAfk) {
-                // Игрок больше не AFK (был активен)
-                afkPlayers.remove(playerUuid);
-                // Логируем при изменении статуса, если разрешено логирование
-                plugin.getLogger().info("Игрок " + player.getName() + " вышел из режима AFK (проверка таймера)");
-            } else if (!isCurrentlyAfk && shouldBeAfk) {
-                // Игрок стал AFK (не был активен длительное время)
-                afkPlayers.add(playerUuid);
-                // Логируем при изменении статуса, если разрешено логирование
-                plugin.getLogger().info("Игрок " + player.getName() + " перешел в режим AFK (неактивен " + 
-                        inactiveTime / 1000 + " секунд)");
+            // Игрок стал AFK (не был активен длительное время)
+            deadlines.poll();
+            afkPlayers.add(playerUuid);
+            Player player = Bukkit.getPlayer(playerUuid);
+            String playerName = player != null ? player.getName() : playerUuid.toString();
+            plugin.getLogger().info("Игрок " + playerName + " перешел в режим AFK (неактивен " + 
+                    (currentTime - lastActiveTime) / 1000 + " секунд)");
+        }
+    }
+
+    /**
+     * Обрабатывает активность, записанную асинхронным потоком.
+     * Время уже сохранено в хранилище, остается только вывести игрока из режима AFK
+     *
+     * @param playerUuid UUID игрока
+     */
+    private void handleAsyncActivity(UUID playerUuid) {
+        if (afkPlayers.remove(playerUuid)) {
+            scheduleDeadline(playerUuid);
+            Player player = Bukkit.getPlayer(playerUuid);
+            if (player != null) {
+                plugin.getLogger().info("Игрок " + player.getName() + " вышел из режима AFK (активность зарегистрирована)");
+                fireAfkExit(player);
             }
         }
     }
 
     /**
-     * Логирует текущий AFK статус всех игроков
+     * Регистрирует обработчик выхода игрока из режима AFK.
+     * Обработчик вызывается в основном потоке в тот же тик, когда зарегистрирована активность
+     *
+     * @param listener Обработчик
+     */
+    public void addAfkExitListener(Consumer<Player> listener) {
+        afkExitListeners.add(listener);
+    }
+
+    /**
+     * Немедленно переводит в режим AFK игроков с истекшим дедлайном, не дожидаясь следующего тика.
+     * Нужен перед подпиской на выход из AFK, чтобы статус в движке совпадал с {@link #isPlayerAfk(Player)}
+     */
+    public void flushExpiredDeadlines() {
+        updateAfkStatus();
+    }
+
+    /**
+     * Оповещает обработчики о выходе игрока из режима AFK
+     *
+     * @param player Игрок
+     */
+    private void fireAfkExit(Player player) {
+        for (Consumer<Player> listener : afkExitListeners) {
+            try {
+                listener.accept(player);
+            } catch (Exception e) {
+                plugin.getLogger().warning("Ошибка в обработчике выхода из AFK: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Ставит дедлайн AFK для игрока от его последней активности
+     *
+     * @param playerUuid UUID игрока
+     */
+    private void scheduleDeadline(UUID playerUuid) {
+        deadlines.schedule(playerUuid, getLastActivity(playerUuid) + currentTimeoutMillis);
+    }
+
+    /**
+     * Возвращает время последней активности игрока или текущее время, если данных нет
+     *
+     * @param playerUuid UUID игрока
+     * @return Время последней активности
+     */
+    private long getLastActivity(UUID playerUuid) {
+        long lastActiveTime = activity.get(playerUuid);
+        return lastActiveTime != ActivityStore.ABSENT ? lastActiveTime : System.currentTimeMillis();
+    }
+
+    /**
+     * Пересчитывает дедлайны всех активных игроков
+     */
+    private void rescheduleAll() {
+        deadlines.clear();
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            UUID playerUuid = player.getUniqueId();
+            if (activity.contains(playerUuid) && !afkPlayers.contains(playerUuid)) {
+                scheduleDeadline(playerUuid);
+            }
+        }
+    }
+
+    /**
+     * Логирует текущий AFK статус всех игроков (только в режиме отладки)
      */
     private void logAfkStatus() {
-        if (!plugin.getPluginConfig().isAfkCheckEnabled()) {
+        if (!afkCheckEnabled || !debugEnabled) {
             return;
         }
         
@@ -150,7 +251,7 @@ public class AfkManager implements Listener {
         for (Player player : Bukkit.getOnlinePlayers()) {
             UUID playerUuid = player.getUniqueId();
             boolean isAfk = afkPlayers.contains(playerUuid);
-            long lastActiveTime = lastActivity.getOrDefault(playerUuid, System.currentTimeMillis());
+            long lastActiveTime = getLastActivity(playerUuid);
             long inactiveTime = System.currentTimeMillis() - lastActiveTime;
             
             plugin.getLogger().info(String.format(
@@ -158,7 +259,7 @@ public class AfkManager implements Listener {
                 player.getName(),
                 isAfk ? "ДА" : "НЕТ",
                 inactiveTime / 1000.0,
-                plugin.getPluginConfig().getAfkTimeout()
+                currentTimeoutMillis / 1000
             ));
         }
         plugin.getLogger().info("=======================================");
@@ -174,20 +275,25 @@ public class AfkManager implements Listener {
         
         UUID playerUuid = player.getUniqueId();
         long currentTime = System.currentTimeMillis();
-        lastActivity.put(playerUuid, currentTime);
+        if (!activity.record(playerUuid, currentTime)) {
+            // Первая активность игрока (например, вход на сервер)
+            activity.register(playerUuid, currentTime);
+            afkPlayers.remove(playerUuid);
+            scheduleDeadline(playerUuid);
+            return;
+        }
         
         // Если игрок был в AFK, помечаем что он вышел из этого состояния
-        if (afkPlayers.contains(playerUuid)) {
-            afkPlayers.remove(playerUuid);
+        if (!afkPlayers.isEmpty() && afkPlayers.remove(playerUuid)) {
+            scheduleDeadline(playerUuid);
             plugin.getLogger().info("Игрок " + player.getName() + " вышел из режима AFK (активность зарегистрирована)");
-            
-            // Немедленно обновить статус AFK без ожидания следующего цикла
-            updateAfkStatus();
+            fireAfkExit(player);
         }
     }
 
     /**
-     * Принудительно обновляет активность игрока и удаляет его из списка AFK
+     * Принудительно обновляет активность игрока и удаляет его из списка AFK.
+     * Обработчики выхода из AFK не вызываются: вызывающий код сам решает, что делать дальше
      *
      * @param player Игрок
      * @return true если игрок был AFK и теперь не AFK
@@ -200,11 +306,15 @@ public class AfkManager implements Listener {
         
         // Обновляем время активности
         long currentTime = System.currentTimeMillis();
-        lastActivity.put(playerUuid, currentTime);
+        if (!activity.record(playerUuid, currentTime)) {
+            activity.register(playerUuid, currentTime);
+            scheduleDeadline(playerUuid);
+        }
         
         // Удаляем из списка AFK
         if (wasAfk) {
             afkPlayers.remove(playerUuid);
+            scheduleDeadline(playerUuid);
             plugin.getLogger().info("Игрок " + player.getName() + " принудительно выведен из режима AFK");
         }
         
@@ -212,7 +322,8 @@ public class AfkManager implements Listener {
     }
 
     /**
-     * Проверяет, находится ли игрок в режиме AFK
+     * Проверяет, находится ли игрок в режиме AFK.
+     * Не изменяет состояние: сравнивает время последней активности с порогом
      *
      * @param player Игрок
      * @return true, если игрок в режиме AFK
@@ -220,40 +331,31 @@ public class AfkManager implements Listener {
     public boolean isPlayerAfk(Player player) {
         // Базовые проверки
         if (player == null) return false;
-        if (!plugin.getPluginConfig().isAfkCheckEnabled()) return false;
-        
-        UUID playerUuid = player.getUniqueId();
+        if (!afkCheckEnabled) return false;
         
         // Если плагин выключен, возвращаем false
         if (!player.isOnline() || !plugin.isEnabled()) return false;
         
-        // Принудительно обновляем данные AFK (для избежания ошибок со статусом)
-        updateAfkStatus(false); // Обновляем без логирования
+        UUID playerUuid = player.getUniqueId();
+        long lastActiveTime = activity.get(playerUuid);
         
-        // Форсированная проверка на AFK
-        if (!lastActivity.containsKey(playerUuid)) {
-            // Если нет данных об активности, считаем игрока не AFK
-            lastActivity.put(playerUuid, System.currentTimeMillis());
-            return false;
-        }
+        // Если нет данных об активности, считаем игрока не AFK
+        if (lastActiveTime == ActivityStore.ABSENT) return false;
         
-        // Получаем актуальные данные о времени неактивности
-        long lastActiveTime = lastActivity.get(playerUuid);
-        long currentTime = System.currentTimeMillis();
-        long inactiveTime = currentTime - lastActiveTime;
-        int afkTimeoutMillis = plugin.getPluginConfig().getAfkTimeout() * 1000;
+        long inactiveTime = System.currentTimeMillis() - lastActiveTime;
+        boolean inAfkList = afkPlayers.contains(playerUuid);
         
-        // Более подробное логирование проверки (только при явной проверке)
-        plugin.getLogger().info(String.format(
-            "AFK проверка для %s: в списке AFK: %s, неактивен: %.1f сек, порог: %d сек",
-            player.getName(),
-            afkPlayers.contains(playerUuid) ? "ДА" : "НЕТ",
-            inactiveTime / 1000.0,
-            afkTimeoutMillis / 1000
-        ));
+        if (debugEnabled) {
+            plugin.getLogger().info(String.format(
+                "AFK проверка для %s: в списке AFK: %s, неактивен: %.1f сек, порог: %d сек",
+                player.getName(),
+                inAfkList ? "ДА" : "НЕТ",
+                inactiveTime / 1000.0,
+                currentTimeoutMillis / 1000
+            ));
+        }
         
-        // Непосредственно проверка статуса AFK
-        return (inactiveTime >= afkTimeoutMillis) || afkPlayers.contains(playerUuid);
+        return inactiveTime >= currentTimeoutMillis || inAfkList;
     }
 
     /**
@@ -269,12 +371,18 @@ public class AfkManager implements Listener {
         
         if (afk) {
             afkPlayers.add(playerUuid);
-            // Не обновляем lastActivity, чтобы сохранить информацию о том, сколько времени игрок неактивен
+            deadlines.remove(playerUuid);
+            // Не обновляем время активности, чтобы сохранить информацию о том, сколько времени игрок неактивен
             plugin.getLogger().info("Игрок " + player.getName() + " вручную переведен в режим AFK");
         } else {
             afkPlayers.remove(playerUuid);
-            lastActivity.put(playerUuid, System.currentTimeMillis());
+            long currentTime = System.currentTimeMillis();
+            if (!activity.record(playerUuid, currentTime)) {
+                activity.register(playerUuid, currentTime);
+            }
+            scheduleDeadline(playerUuid);
             plugin.getLogger().info("Игрок " + player.getName() + " вручную выведен из режима AFK");
+            fireAfkExit(player);
         }
     }
 
@@ -292,8 +400,9 @@ public class AfkManager implements Listener {
     @EventHandler(priority = EventPriority.MONITOR)
     public void onPlayerQuit(PlayerQuitEvent event) {
         UUID playerUuid = event.getPlayer().getUniqueId();
-        lastActivity.remove(playerUuid);
+        activity.unregister(playerUuid);
         afkPlayers.remove(playerUuid);
+        deadlines.remove(playerUuid);
     }
 
     /**
@@ -322,8 +431,9 @@ public class AfkManager implements Listener {
      */
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onPlayerChat(AsyncPlayerChatEvent event) {
-        // Поскольку этот метод асинхронный, выполняем обновление в основном потоке
-        Bukkit.getScheduler().runTask(plugin, () -> updatePlayerActivity(event.getPlayer()));
+        // Метод асинхронный: время активности записывается напрямую (хранилище потокобезопасно),
+        // а выход из режима AFK обработает задача проверки на следующем тике
+        activity.recordAsync(event.getPlayer().getUniqueId(), System.currentTimeMillis());
     }
 
     /**
@@ -391,8 +501,8 @@ public class AfkManager implements Listener {
     public void cancelTask() {
         if (afkCheckTask != null && !afkCheckTask.isCancelled()) {
             afkCheckTask.cancel();
-            afkCheckTask = null;
         }
+        afkCheckTask = null;
     }
     
     /**
@@ -403,8 +513,9 @@ public class AfkManager implements Listener {
     public String getDebugInfo() {
         StringBuilder debug = new StringBuilder("=== AFK Debug Info ===\n");
         debug.append("Всего игроков в AFK: ").append(afkPlayers.size()).append("\n");
-        debug.append("AFK включен: ").append(plugin.getPluginConfig().isAfkCheckEnabled()).append("\n");
-        debug.append("Порог AFK (сек): ").append(plugin.getPluginConfig().getAfkTimeout()).append("\n");
+        debug.append("AFK включен: ").append(afkCheckEnabled).append("\n");
+        debug.append("Порог AFK (сек): ").append(currentTimeoutMillis / 1000).append("\n");
+        debug.append("Дедлайнов в очереди: ").append(deadlines.size()).append("\n");
         
         debug.append("\nСписок игроков AFK:\n");
         for (UUID uuid : afkPlayers) {
@@ -416,10 +527,10 @@ public class AfkManager implements Listener {
         debug.append("\nИнформация о всех игроках:\n");
         for (Player player : Bukkit.getOnlinePlayers()) {
             UUID playerUuid = player.getUniqueId();
-            long lastActiveTime = lastActivity.getOrDefault(playerUuid, System.currentTimeMillis());
+            long lastActiveTime = getLastActivity(playerUuid);
             long inactiveTime = System.currentTimeMillis() - lastActiveTime;
             boolean isInAfkList = afkPlayers.contains(playerUuid);
-            boolean wouldBeAfk = inactiveTime >= plugin.getPluginConfig().getAfkTimeout() * 1000;
+            boolean wouldBeAfk = inactiveTime >= currentTimeoutMillis;
             
             debug.append(String.format(
                 "- %s: неактивен %.1f сек, в списке AFK: %s, должен быть AFK: %s\n",
@@ -0,0 +1,182 @@
+package org.shavin.cheaterCheck.managers;
+
+import org.bukkit.Bukkit;
+import org.bukkit.boss.BarColor;
+import org.bukkit.boss.BarStyle;
+import org.bukkit.boss.BossBar;
+import org.bukkit.entity.Player;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Босс-бар таймера проверки.
+ * Каждый сеттер BossBar отправляет пакет всем зрителям даже без изменений, поэтому бар
+ * помнит последние отправленные заголовок, деление прогресса и цвет и передает только
+ * изменившиеся поля. Проверяемый и наблюдающие администраторы смотрят один и тот же бар:
+ * новый зритель получает текущее состояние при добавлении
+ */
+public final class CheckBossBar {
+    // Точность прогресса: при меньшем шаге полоса визуально не меняется
+    private static final int PROGRESS_STEPS = 100;
+    // Заголовки таймера кэшируются для первого часа проверки
+    private static final String[] TIME_TITLES = new String[3600];
+
+    private static final String PAUSED_TITLE = "§c§lВы на проверке";
+    private static final String EXPIRED_TITLE = "§c§lВремя проверки истекло!";
+
+    private final BossBar bossBar;
+    // Администраторы, наблюдающие за проверкой (проверяемый игрок сюда не входит)
+    private final Set<UUID> spectators = new HashSet<>();
+    private String lastTitle;
+    private int lastStep;
+    private BarColor lastColor;
+
+    /**
+     * Создает бар и показывает его проверяемому игроку
+     *
+     * @param target Проверяемый игрок
+     * @param remainingSeconds Оставшееся время в секундах
+     * @param maxSeconds Полное время проверки в секундах
+     */
+    public CheckBossBar(Player target, int remainingSeconds, int maxSeconds) {
+        this.lastTitle = timeTitle(remainingSeconds);
+        this.lastStep = PROGRESS_STEPS;
+        this.lastColor = BarColor.GREEN;
+        this.bossBar = Bukkit.createBossBar(lastTitle, lastColor, BarStyle.SEGMENTED_10);
+        bossBar.setProgress(1.0);
+        showRemaining(remainingSeconds, maxSeconds);
+        bossBar.addPlayer(target);
+    }
+
+    /**
+     * Показывает оставшееся время
+     *
+     * @param remainingSeconds Оставшееся время в секундах
+     * @param maxSeconds Полное время проверки в секундах
+     */
+    public void showRemaining(int remainingSeconds, int maxSeconds) {
+        double progress = maxSeconds > 0 ? (double) remainingSeconds / maxSeconds : 0;
+        setProgress(progress);
+        setTitle(timeTitle(remainingSeconds));
+
+        // Цвет зависит от оставшегося времени
+        if (remainingSeconds <= 10) {
+            setColor(BarColor.RED);
+        } else if (remainingSeconds <= 30) {
+            setColor(BarColor.YELLOW);
+        } else {
+            setColor(BarColor.GREEN);
+        }
+    }
+
+    /**
+     * Показывает, что таймер на паузе
+     */
+    public void showPaused() {
+        setColor(BarColor.RED);
+        setTitle(PAUSED_TITLE);
+    }
+
+    /**
+     * Показывает, что время проверки истекло
+     */
+    public void showExpired() {
+        setProgress(0);
+        setColor(BarColor.RED);
+        setTitle(EXPIRED_TITLE);
+    }
+
+    /**
+     * Добавляет наблюдающего администратора к бару
+     *
+     * @param spectator Администратор
+     * @return true, если администратор добавлен, false - если уже наблюдает
+     */
+    public boolean addSpectator(Player spectator) {
+        if (!spectators.add(spectator.getUniqueId())) {
+            return false;
+        }
+        bossBar.addPlayer(spectator);
+        return true;
+    }
+
+    /**
+     * Убирает наблюдающего администратора из бара
+     *
+     * @param spectator Администратор
+     * @return true, если администратор наблюдал за проверкой
+     */
+    public boolean removeSpectator(Player spectator) {
+        if (!spectators.remove(spectator.getUniqueId())) {
+            return false;
+        }
+        bossBar.removePlayer(spectator);
+        return true;
+    }
+
+    /**
+     * @param spectatorUuid UUID администратора
+     * @return true, если администратор наблюдает за проверкой
+     */
+    public boolean isSpectator(UUID spectatorUuid) {
+        return spectators.contains(spectatorUuid);
+    }
+
+    /**
+     * Скрывает бар у всех зрителей
+     */
+    public void remove() {
+        bossBar.removeAll();
+        spectators.clear();
+    }
+
+    private void setTitle(String title) {
+        if (!title.equals(lastTitle)) {
+            lastTitle = title;
+            bossBar.setTitle(title);
+        }
+    }
+
+    private void setProgress(double progress) {
+        int step = (int) Math.round(Math.max(0, Math.min(1, progress)) * PROGRESS_STEPS);
+        if (step != lastStep) {
+            lastStep = step;
+            bossBar.setProgress((double) step / PROGRESS_STEPS);
+        }
+    }
+
+    private void setColor(BarColor color) {
+        if (color != lastColor) {
+            lastColor = color;
+            bossBar.setColor(color);
+        }
+    }
+
+    /**
+     * Возвращает заголовок с отображением времени
+     *
+     * @param seconds Оставшееся время в секундах
+     * @return Заголовок
+     */
+    private static String timeTitle(int seconds) {
+        if (seconds >= 0 && seconds < TIME_TITLES.length) {
+            String title = TIME_TITLES[seconds];
+            if (title == null) {
+                title = formatTimeTitle(seconds);
+                TIME_TITLES[seconds] = title;
+            }
+            return title;
+        }
+        return formatTimeTitle(seconds);
+    }
+
+    private static String formatTimeTitle(int seconds) {
+        int minutes = seconds / 60;
+        int remainingSeconds = seconds % 60;
+
+        String formattedTime = String.format("%02d:%02d", minutes, remainingSeconds);
+        return "§e§lВремя проверки: §f" + formattedTime;
+    }
+}
@@ -1,9 +1,6 @@
 package org.shavin.cheaterCheck.managers;
 
 import org.bukkit.Bukkit;
-import org.bukkit.boss.BarColor;
-import org.bukkit.boss.BarStyle;
-import org.bukkit.boss.BossBar;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 import org.bukkit.scheduler.BukkitRunnable;
@@ -14,6 +11,7 @@ import org.bukkit.metadata.FixedMetadataValue;
 import org.bukkit.Location;
 import org.bukkit.GameMode;
 import org.shavin.cheaterCheck.utils.DiscordWebhook;
+import org.shavin.cheaterCheck.utils.MessageTemplate;
 
 import java.util.Collections;
 import java.util.HashMap;
@@ -23,10 +21,15 @@ import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
 
 public class CheckManager {
     private final CheaterCheck plugin;
     private final Map<UUID, CheckSession> activeSessions;
+    // Одна задача на все проверки: раз в секунду продвигает таймеры всех сессий
+    private BukkitTask sessionClock;
+    // Секунды, отсчитанные часами сессий с момента включения плагина
+    private long clockSeconds;
 
     public CheckManager(CheaterCheck plugin) {
         this.plugin = plugin;
@@ -60,23 +63,21 @@ public class CheckManager {
         plugin.getLogger().info("Проверка AFK для " + target.getName() + ": " + (isAfk ? "AFK" : "не AFK"));
         
         if (isAfk) {
-            String afkMessage = plugin.getPluginConfig().getAfkMessage();
-            plugin.getMessageManager().sendMessage(staff, 
-                    ChatUtils.replacePlaceholders(afkMessage, "{player}", target.getName()));
+            plugin.getMessageManager().sendMessage(staff, plugin.getPluginConfig().getAfkTemplate(),
+                    "{player}", target.getName());
             return false;
         }
 
         // Проверяем, находится ли игрок в списке байпаса
-        if (plugin.getFileManager().isPlayerInBypassList(target.getName())) {
-            String message = plugin.getPluginConfig().getErrorMessage("bypass-list", 
+        if (plugin.getFileManager().isPlayerInBypassList(target.getUniqueId(), target.getName())) {
+            MessageTemplate message = plugin.getPluginConfig().getErrorTemplate("bypass-list",
                     "&cИгрок &e{player} &cнаходится в списке игроков, которых нельзя проверить!");
-            plugin.getMessageManager().sendMessage(staff, 
-                    ChatUtils.replacePlaceholders(message, "{player}", target.getName()));
+            plugin.getMessageManager().sendMessage(staff, message, "{player}", target.getName());
             return false;
         }
 
         // Замораживаем игрока
-        if (!plugin.getFreezeManager().freezePlayer(target)) {
+        if (!plugin.getFreezeManager().freezePlayer(target, FreezeContext.check(staff, target))) {
             plugin.getMessageManager().sendAlreadyFrozenMessage(staff, target.getName());
             return false;
         }
@@ -90,6 +91,7 @@ public class CheckManager {
         // Создаем сессию проверки
         CheckSession session = new CheckSession(staff, target);
         activeSessions.put(targetUuid, session);
+        startSessionClock();
 
         // Отправляем Title игроку о начале проверки
         target.sendTitle(
@@ -101,10 +103,9 @@ public class CheckManager {
         );
         
         // Отправляем сообщение о начале проверки
-        String startedMessage = plugin.getPluginConfig().getCheckMessage("started", 
+        MessageTemplate startedMessage = plugin.getPluginConfig().getCheckTemplate("started",
                 "&aНачата проверка игрока &e{player}&a.");
-        plugin.getMessageManager().sendMessage(staff, 
-                ChatUtils.replacePlaceholders(startedMessage, "{player}", target.getName()));
+        plugin.getMessageManager().sendMessage(staff, startedMessage, "{player}", target.getName());
                 
         // Оповещаем администраторов
         if (plugin.getPluginConfig().notifyStaff()) {
@@ -114,7 +115,7 @@ public class CheckManager {
         }
         
         // Отправляем сообщение игроку о проверке
-        String message = plugin.getPluginConfig().getCheckMessage("target", 
+        MessageTemplate message = plugin.getPluginConfig().getCheckTemplate("target",
                 "&cВы были вызваны на проверку. Пожалуйста, выполняйте указания администратора!");
         plugin.getMessageManager().sendMessage(target, message);
         
@@ -160,7 +161,7 @@ public class CheckManager {
         if (session == null) {
             plugin.getLogger().warning("endCheck: Не найдена сессия проверки для игрока " + target.getName());
             // Разморозим игрока на всякий случай, даже если сессия не найдена
-            plugin.getFreezeManager().unfreezePlayer(target);
+            plugin.getFreezeManager().unfreezePlayer(target, FreezeContext.check(staff, target));
             return false;
         }
         
@@ -174,7 +175,7 @@ public class CheckManager {
         }
         
         // Размораживаем игрока
-        plugin.getFreezeManager().unfreezePlayer(target);
+        plugin.getFreezeManager().unfreezePlayer(target, FreezeContext.check(staff, target));
         
         // Логируем события в Discord
         if (plugin.getExtendedConfig().isDiscordLoggingEnabled()) {
@@ -214,18 +215,16 @@ public class CheckManager {
         plugin.getLogger().info("Проверка AFK для " + target.getName() + " при запросе скриншера: " + (isAfk ? "AFK" : "не AFK"));
         
         if (isAfk) {
-            String afkMessage = plugin.getPluginConfig().getAfkMessage();
-            plugin.getMessageManager().sendMessage(staff, 
-                    ChatUtils.replacePlaceholders(afkMessage, "{player}", target.getName()));
+            plugin.getMessageManager().sendMessage(staff, plugin.getPluginConfig().getAfkTemplate(),
+                    "{player}", target.getName());
             return false;
         }
 
         // Проверяем, находится ли игрок в списке байпаса
-        if (plugin.getFileManager().isPlayerInBypassList(target.getName())) {
-            String message = plugin.getPluginConfig().getErrorMessage("bypass-list", 
+        if (plugin.getFileManager().isPlayerInBypassList(target.getUniqueId(), target.getName())) {
+            MessageTemplate message = plugin.getPluginConfig().getErrorTemplate("bypass-list",
                     "&cИгрок &e{player} &cнаходится в списке игроков, которых нельзя проверить!");
-            plugin.getMessageManager().sendMessage(staff, 
-                    ChatUtils.replacePlaceholders(message, "{player}", target.getName()));
+            plugin.getMessageManager().sendMessage(staff, message, "{player}", target.getName());
             return false;
         }
 
@@ -364,6 +363,44 @@ public class CheckManager {
         return true;
     }
 
+    /**
+     * Запускает часы сессий, если они еще не идут
+     */
+    private void startSessionClock() {
+        if (sessionClock == null) {
+            sessionClock = Bukkit.getScheduler().runTaskTimer(plugin, this::tickSessions, 20L, 20L);
+        }
+    }
+
+    /**
+     * Останавливает часы сессий
+     */
+    private void stopSessionClock() {
+        if (sessionClock != null && !sessionClock.isCancelled()) {
+            sessionClock.cancel();
+        }
+        sessionClock = null;
+    }
+
+    /**
+     * Продвигает все активные проверки на одну секунду.
+     * Без активных проверок часы останавливаются и запускаются снова при следующей проверке
+     */
+    private void tickSessions() {
+        if (activeSessions.isEmpty()) {
+            stopSessionClock();
+            return;
+        }
+        
+        long now = ++clockSeconds;
+        // Бан или выход игрока во время обхода меняют activeSessions, поэтому обходим копию
+        for (CheckSession session : new ArrayList<>(activeSessions.values())) {
+            if (activeSessions.get(session.target.getUniqueId()) == session) {
+                session.tick(now);
+            }
+        }
+    }
+
     /**
      * Проверяет, находится ли игрок на проверке
      *
@@ -412,6 +449,7 @@ public class CheckManager {
         
         // Очищаем список активных сессий
         activeSessions.clear();
+        stopSessionClock();
         
         plugin.getLogger().info("Все активные проверки отменены!");
     }
@@ -475,7 +513,7 @@ public class CheckManager {
         Player target = Bukkit.getPlayer(targetUuid);
         if (target != null && target.isOnline()) {
             // Размораживаем игрока
-            plugin.getFreezeManager().unfreezePlayer(target);
+            plugin.getFreezeManager().unfreezePlayer(target, FreezeContext.check(staff, target));
             
             // Телепортируем игрока обратно на исходную позицию, если она сохранена
             if (previousLocation != null) {
@@ -607,12 +645,19 @@ public class CheckManager {
         private final Player target;
         private final long startTime;
         private Location previousLocation;
-        private BukkitTask reminderTask;
-        private BukkitTask titleTask;
-        private BukkitTask timeoutTask;
-        private BukkitTask bossBarTask;
-        private BossBar bossBar;
-        private int remainingSeconds; // Оставшееся время в секундах
+        // Интервалы напоминаний и заголовков в секундах (0 - отключено) и моменты следующего показа по часам сессий
+        private final int reminderInterval;
+        private final int titleInterval;
+        private long nextReminderAt;
+        private long nextTitleAt;
+        // Таймер идет к сроку и еще не истек. Срок истекает ровно один раз
+        private boolean countdownActive;
+        private boolean cancelled;
+        private CheckBossBar bossBar;
+        // Срок проверки по монотонным часам (System.nanoTime), пока таймер идет
+        private long deadlineNanos;
+        // Остаток времени, замороженный на время паузы
+        private long pausedRemainingNanos;
         private boolean isPaused; // Флаг паузы таймера
 
         public CheckSession(CommandSender staff, Player target) {
@@ -621,8 +666,15 @@ public class CheckManager {
             this.startTime = System.currentTimeMillis();
             this.isPaused = false;
             
-            // Инициализация оставшегося времени из конфигурации
-            this.remainingSeconds = plugin.getPluginConfig().getTimeoutSeconds();
+            // Срок проверки из конфигурации
+            int timeoutSeconds = plugin.getPluginConfig().getTimeoutSeconds();
+            if (timeoutSeconds > 0) {
+                this.deadlineNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+                this.countdownActive = true;
+            }
+            this.reminderInterval = Math.max(0, plugin.getPluginConfig().getReminderInterval());
+            this.titleInterval = plugin.getPluginConfig().isPeriodicTitleEnabled()
+                    ? Math.max(1, plugin.getPluginConfig().getPeriodicTitleInterval()) : 0;
             
             // Безопасное сохранение местоположения игрока до проверки
             try {
@@ -639,113 +691,101 @@ public class CheckManager {
         }
 
         /**
-         * Инициализирует все задачи для данной сессии
+         * Рассчитывает расписание напоминаний, заголовков и таймера для данной сессии
          */
         private void initializeTasks() {
             // Периодическое напоминание для игрока
-            int reminderInterval = plugin.getPluginConfig().getReminderInterval() * 20; // Конвертируем секунды в тики
-            
-            if (reminderInterval > 0) {
-                this.reminderTask = new BukkitRunnable() {
-                    @Override
-                    public void run() {
-                        if (target.isOnline()) {
-                            String reminderMessage = plugin.getPluginConfig().getSuspectReminderMessage();
-                            plugin.getMessageManager().sendMessage(target, reminderMessage);
-                        } else {
-                            cancel();
-                        }
-                    }
-                }.runTaskTimer(plugin, reminderInterval, reminderInterval);
-            }
+            nextReminderAt = clockSeconds + reminderInterval;
             
             // Периодическое отображение заголовка
-            if (plugin.getPluginConfig().isPeriodicTitleEnabled()) {
-                int titleInterval = plugin.getPluginConfig().getPeriodicTitleInterval() * 20; // Конвертируем секунды в тики
-                
-                this.titleTask = new BukkitRunnable() {
-                    @Override
-                    public void run() {
-                        if (target.isOnline()) {
-                            plugin.getMessageManager().sendCheckTitle(target);
-                        } else {
-                            cancel();
-                        }
-                    }
-                }.runTaskTimer(plugin, titleInterval, titleInterval);
-            }
+            nextTitleAt = clockSeconds + titleInterval;
             
             // Создаем и инициализируем босс-бар
-            if (remainingSeconds > 0) {
+            if (countdownActive) {
                 createBossBar();
-                
-                // Запускаем таймер обновления босс-бара
-                this.bossBarTask = new BukkitRunnable() {
-                    @Override
-                    public void run() {
-                        if (!target.isOnline() || !isBeingChecked(target.getUniqueId())) {
-                            if (bossBar != null) {
-                                bossBar.removeAll();
-                            }
-                            cancel();
-                            return;
-                        }
-                        
-                        // Обновляем время, только если таймер не на паузе
-                        if (!isPaused) {
-                            remainingSeconds--;
-                            
-                            if (remainingSeconds <= 0) {
-                                // Время вышло
-                                remainingSeconds = 0;
-                                if (bossBar != null) {
-                                    bossBar.setProgress(0);
-                                    bossBar.setColor(BarColor.RED);
-                                    bossBar.setTitle("§c§lВремя проверки истекло!");
-                                }
-                                cancel();
-                                
-                                // Автоматический бан
-                                if (plugin.getConfig().getBoolean("check.timeout.autoban", true)) {
-                                    banPlayerForTimeout(target);
-                                    
-                                    // Отправляем сообщение админам
-                                    String timeoutMessage = "&c&lВремя проверки игрока &e&l" + target.getName() + 
-                                            " &c&lистекло! Игрок был автоматически забанен.";
-                                    plugin.getMessageManager().broadcastToPermission(timeoutMessage, "cheatercheck.check");
-                                    
-                                    // Удаляем сессию проверки
-                                    activeSessions.remove(target.getUniqueId());
-                                }
-                            } else {
-                                // Обновляем босс-бар
-                                updateBossBar();
-                            }
-                        }
-                    }
-                }.runTaskTimer(plugin, 20L, 20L); // Обновление каждую секунду
+            }
+        }
+        
+        /**
+         * Продвигает сессию на одну секунду по часам сессий
+         *
+         * @param now Текущее время часов сессий в секундах
+         */
+        private void tick(long now) {
+            if (cancelled || !target.isOnline()) {
+                return;
             }
             
-            // Сохраняем оригинальный таймаут
-            if (plugin.getConfig().getBoolean("check.timeout.autoban", true) && remainingSeconds > 0) {
-                this.timeoutTask = new BukkitRunnable() {
-                    @Override
-                    public void run() {
-                        if (target.isOnline() && isBeingChecked(target.getUniqueId()) && !isPaused) {
-                            // Автоматический бан, если время проверки истекло
-                            banPlayerForTimeout(target);
-                            
-                            // Отправляем сообщение админам
-                            String timeoutMessage = "&c&lВремя проверки игрока &e&l" + target.getName() + 
-                                    " &c&lистекло! Игрок был автоматически забанен.";
-                            plugin.getMessageManager().broadcastToPermission(timeoutMessage, "cheatercheck.check");
-                            
-                            // Удаляем сессию проверки
-                            activeSessions.remove(target.getUniqueId());
-                        }
-                    }
-                }.runTaskLater(plugin, remainingSeconds * 20L); // Конвертируем секунды в тики
+            if (reminderInterval > 0 && now >= nextReminderAt) {
+                nextReminderAt = now + reminderInterval;
+                // Шаблон без плейсхолдеров: компонент собирается один раз до перезагрузки
+                plugin.getMessageManager().sendMessage(target,
+                        plugin.getPluginConfig().getSuspectReminderTemplate());
+            }
+            
+            if (titleInterval > 0 && now >= nextTitleAt) {
+                nextTitleAt = now + titleInterval;
+                plugin.getMessageManager().sendCheckTitle(target);
             }
+            
+            // Обновляем время, только если таймер не на паузе
+            if (!countdownActive || isPaused) {
+                return;
+            }
+            
+            if (getRemainingNanos() > 0) {
+                // Обновляем босс-бар
+                updateBossBar();
+                return;
+            }
+            
+            expire();
+        }
+        
+        /**
+         * Завершает проверку по истечении срока. Срабатывает один раз:
+         * повторно таймер запускается только через addTime
+         */
+        private void expire() {
+            // Время вышло
+            countdownActive = false;
+            if (bossBar != null) {
+                bossBar.showExpired();
+            }
+            
+            // Автоматический бан
+            if (plugin.getConfig().getBoolean("check.timeout.autoban", true)) {
+                // Сессия удаляется до бана: кик при бане не должен считаться выходом во время проверки
+                activeSessions.remove(target.getUniqueId());
+                cancelTasks();
+                
+                banPlayerForTimeout(target);
+                
+                // Отправляем сообщение админам
+                String timeoutMessage = "&c&lВремя проверки игрока &e&l" + target.getName() + 
+                        " &c&lистекло! Игрок был автоматически забанен.";
+                plugin.getMessageManager().broadcastToPermission(timeoutMessage, "cheatercheck.check");
+            }
+        }
+        
+        /**
+         * @return Остаток времени до срока в наносекундах (не меньше 0)
+         */
+        private long getRemainingNanos() {
+            if (!countdownActive) {
+                return 0L;
+            }
+            long remaining = isPaused ? pausedRemainingNanos : deadlineNanos - System.nanoTime();
+            return Math.max(0L, remaining);
+        }
+        
+        /**
+         * @return Остаток времени в целых секундах с округлением вверх, как на таймере
+         */
+        private int getRemainingSeconds() {
+            long remaining = getRemainingNanos();
+            long seconds = (remaining + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+            return (int) Math.min(Integer.MAX_VALUE, seconds);
         }
         
         /**
@@ -753,60 +793,53 @@ public class CheckManager {
          */
         private void createBossBar() {
             if (target.isOnline()) {
-                // Создаем босс-бар
-                bossBar = Bukkit.createBossBar(
-                    formatTimeTitle(remainingSeconds),
-                    BarColor.GREEN, 
-                    BarStyle.SEGMENTED_10
-                );
-                
-                // Устанавливаем прогресс и добавляем игрока
-                bossBar.setProgress(1.0);
-                bossBar.addPlayer(target);
+                bossBar = new CheckBossBar(target, getRemainingSeconds(), plugin.getPluginConfig().getTimeoutSeconds());
             }
         }
         
         /**
-         * Обновляет состояние босс-бара в зависимости от оставшегося времени
+         * Обновляет состояние босс-бара в зависимости от оставшегося времени.
+         * Бар сам отправляет только изменившиеся поля
          */
         private void updateBossBar() {
             if (bossBar != null && target.isOnline()) {
-                int maxTime = plugin.getPluginConfig().getTimeoutSeconds();
-                double progress = (double) remainingSeconds / maxTime;
-                
-                // Устанавливаем прогресс
-                bossBar.setProgress(Math.max(0, Math.min(1, progress)));
-                
-                // Обновляем заголовок с отображением времени
-                bossBar.setTitle(formatTimeTitle(remainingSeconds));
-                
-                // Изменяем цвет в зависимости от оставшегося времени
-                if (remainingSeconds <= 10) {
-                    bossBar.setColor(BarColor.RED);
-                } else if (remainingSeconds <= 30) {
-                    bossBar.setColor(BarColor.YELLOW);
+                if (isPaused) {
+                    bossBar.showPaused();
                 } else {
-                    bossBar.setColor(BarColor.GREEN);
+                    bossBar.showRemaining(getRemainingSeconds(), plugin.getPluginConfig().getTimeoutSeconds());
                 }
             }
         }
         
         /**
-         * Форматирует заголовок босс-бара с отображением времени
-         * 
-         * @param seconds Оставшееся время в секундах
-         * @return Отформатированный заголовок
+         * @return true, если у проверки показывается босс-бар таймера
          */
-        private String formatTimeTitle(int seconds) {
-            if (isPaused) {
-                return "§c§lВы на проверке";
+        public boolean hasBossBar() {
+            return bossBar != null;
+        }
+        
+        /**
+         * Добавляет администратора к босс-бару проверки или убирает его оттуда
+         *
+         * @param spectator Администратор
+         * @return true, если администратор теперь наблюдает за проверкой
+         */
+        public boolean toggleSpectator(Player spectator) {
+            if (bossBar == null || bossBar.removeSpectator(spectator)) {
+                return false;
+            }
+            return bossBar.addSpectator(spectator);
+        }
+        
+        /**
+         * Убирает администратора из наблюдающих за проверкой
+         *
+         * @param spectator Администратор
+         */
+        public void removeSpectator(Player spectator) {
+            if (bossBar != null) {
+                bossBar.removeSpectator(spectator);
             }
-            
-            int minutes = seconds / 60;
-            int remainingSeconds = seconds % 60;
-            
-            String formattedTime = String.format("%02d:%02d", minutes, remainingSeconds);
-            return "§e§lВремя проверки: §f" + formattedTime;
         }
         
         /**
@@ -815,16 +848,19 @@ public class CheckManager {
          * @param paused Состояние паузы
          */
         public void setPaused(boolean paused) {
-            this.isPaused = paused;
-            
-            if (bossBar != null) {
+            if (paused != isPaused && countdownActive) {
+                long now = System.nanoTime();
                 if (paused) {
-                    bossBar.setColor(BarColor.RED);
-                    bossBar.setTitle("§c§lВы на проверке");
+                    // Замораживаем остаток: срок не идет, пока таймер на паузе
+                    pausedRemainingNanos = Math.max(0L, deadlineNanos - now);
                 } else {
-                    updateBossBar(); // Обновляем состояние и цвет босс-бара
+                    deadlineNanos = now + pausedRemainingNanos;
                 }
             }
+            this.isPaused = paused;
+            
+            // Обновляем состояние и цвет босс-бара
+            updateBossBar();
         }
         
         /**
@@ -835,63 +871,30 @@ public class CheckManager {
         public void addTime(int additionalSeconds) {
             if (additionalSeconds <= 0) return;
             
-            // Отменяем текущую задачу таймаута, если она существует
-            if (timeoutTask != null && !timeoutTask.isCancelled()) {
-                timeoutTask.cancel();
+            // Продлеваем срок. Истекший таймер запускается заново от текущего момента
+            long extended = getRemainingNanos() + TimeUnit.SECONDS.toNanos(additionalSeconds);
+            if (isPaused) {
+                pausedRemainingNanos = extended;
+            } else {
+                deadlineNanos = System.nanoTime() + extended;
             }
-            
-            // Добавляем время
-            this.remainingSeconds += additionalSeconds;
+            countdownActive = true;
             
             // Обновляем босс-бар
             if (bossBar != null) {
                 updateBossBar();
             }
-            
-            // Создаем новую задачу таймаута
-            if (plugin.getConfig().getBoolean("check.timeout.autoban", true) && !isPaused) {
-                this.timeoutTask = new BukkitRunnable() {
-                    @Override
-                    public void run() {
-                        if (target.isOnline() && isBeingChecked(target.getUniqueId()) && !isPaused) {
-                            // Автоматический бан, если время проверки истекло
-                            banPlayerForTimeout(target);
-                            
-                            // Отправляем сообщение админам
-                            String timeoutMessage = "&c&lВремя проверки игрока &e&l" + target.getName() + 
-                                    " &c&lистекло! Игрок был автоматически забанен.";
-                            plugin.getMessageManager().broadcastToPermission(timeoutMessage, "cheatercheck.check");
-                            
-                            // Удаляем сессию проверки
-                            activeSessions.remove(target.getUniqueId());
-                        }
-                    }
-                }.runTaskLater(plugin, remainingSeconds * 20L); // Конвертируем секунды в тики
-            }
         }
         
         /**
          * Отменяет все задачи, связанные с сессией
          */
         public void cancelTasks() {
-            if (reminderTask != null && !reminderTask.isCancelled()) {
-                reminderTask.cancel();
-            }
-            
-            if (titleTask != null && !titleTask.isCancelled()) {
-                titleTask.cancel();
-            }
-            
-            if (timeoutTask != null && !timeoutTask.isCancelled()) {
-                timeoutTask.cancel();
-            }
-            
-            if (bossBarTask != null && !bossBarTask.isCancelled()) {
-                bossBarTask.cancel();
-            }
+            // Отмененная сессия больше не продвигается часами сессий
+            cancelled = true;
             
             if (bossBar != null) {
-                bossBar.removeAll();
+                bossBar.remove();
                 bossBar = null;
             }
         }
@@ -1114,6 +1117,66 @@ public class CheckManager {
         return true;
     }
 
+    /**
+     * Подключает администратора к босс-бару таймера проверки или отключает от него
+     *
+     * @param staff Администратор
+     * @param target Проверяемый игрок
+     * @return true, если операция выполнена успешно
+     */
+    public boolean toggleSpectator(Player staff, Player target) {
+        if (target == null) {
+            plugin.getMessageManager().sendPlayerNotFoundMessage(staff);
+            return false;
+        }
+        
+        CheckSession session = activeSessions.get(target.getUniqueId());
+        if (session == null) {
+            plugin.getMessageManager().sendMessage(staff, 
+                    "&cИгрок &e" + target.getName() + " &cне находится на проверке!");
+            return false;
+        }
+        
+        if (staff.getUniqueId().equals(target.getUniqueId())) {
+            plugin.getMessageManager().sendMessage(staff, "&cНельзя наблюдать за собственной проверкой!");
+            return false;
+        }
+        
+        if (!session.hasBossBar()) {
+            plugin.getMessageManager().sendMessage(staff, 
+                    "&cУ проверки игрока &e" + target.getName() + " &cнет таймера.");
+            return false;
+        }
+        
+        // Наблюдатель может смотреть только одну проверку
+        for (CheckSession other : activeSessions.values()) {
+            if (other != session) {
+                other.removeSpectator(staff);
+            }
+        }
+        
+        if (session.toggleSpectator(staff)) {
+            plugin.getMessageManager().sendMessage(staff, 
+                    "&aВы наблюдаете за таймером проверки игрока &e" + target.getName() + "&a.");
+        } else {
+            plugin.getMessageManager().sendMessage(staff, 
+                    "&aВы больше не наблюдаете за таймером проверки игрока &e" + target.getName() + "&a.");
+        }
+        
+        return true;
+    }
+    
+    /**
+     * Отключает администратора от босс-баров всех проверок (например, при выходе с сервера)
+     *
+     * @param staff Администратор
+     */
+    public void removeSpectator(Player staff) {
+        for (CheckSession session : activeSessions.values()) {
+            session.removeSpectator(staff);
+        }
+    }
+
     /**
      * Обрабатывает игрока, уличенного в использовании читов
      *
@@ -1126,17 +1189,14 @@ public class CheckManager {
         markPlayerAsRecentlyChecked(target);
         
         // Отправляем сообщение о завершении проверки
-        String completedMessage = plugin.getPluginConfig().getCheckMessage("completed", 
+        MessageTemplate completedMessage = plugin.getPluginConfig().getCheckTemplate("completed",
                 "&aПроверка игрока &e{player} &aзавершена.");
-        plugin.getMessageManager().sendMessage(staff, 
-                ChatUtils.replacePlaceholders(completedMessage, "{player}", target.getName()));
+        plugin.getMessageManager().sendMessage(staff, completedMessage, "{player}", target.getName());
                 
         // Игрок использовал читы
-        String resultBannedMessage = plugin.getPluginConfig().getCheckMessage("result-banned", 
-                "&cИгрок &e{player} &cбыл забанен за использование чита &e{cheat}&c.");
-        resultBannedMessage = ChatUtils.replacePlaceholders(resultBannedMessage, 
-                "{player}", target.getName(), 
-                "{cheat}", cheat != null ? cheat : "неизвестного");
+        String resultBannedMessage = plugin.getPluginConfig().getCheckTemplate("result-banned",
+                "&cИгрок &e{player} &cбыл забанен за использование чита &e{cheat}&c.")
+                .render("{player}", target.getName(), "{cheat}", cheat != null ? cheat : "неизвестного");
         
         // Отправляем оповещение о бане
         if (plugin.getPluginConfig().publicBanMessage()) {
@@ -1172,16 +1232,14 @@ public class CheckManager {
         }
         
         // Отправляем сообщение о завершении проверки
-        String completedMessage = plugin.getPluginConfig().getCheckMessage("completed", 
+        MessageTemplate completedMessage = plugin.getPluginConfig().getCheckTemplate("completed",
                 "&aПроверка игрока &e{player} &aзавершена.");
-        plugin.getMessageManager().sendMessage(staff, 
-                ChatUtils.replacePlaceholders(completedMessage, "{player}", target.getName()));
+        plugin.getMessageManager().sendMessage(staff, completedMessage, "{player}", target.getName());
                 
         // Игрок чист
-        String resultCleanMessage = plugin.getPluginConfig().getCheckMessage("result-clean", 
-                "&aИгрок &e{player} &aбыл проверен и признан чистым.");
-        resultCleanMessage = ChatUtils.replacePlaceholders(resultCleanMessage, 
-                "{player}", target.getName());
+        String resultCleanMessage = plugin.getPluginConfig().getCheckTemplate("result-clean",
+                "&aИгрок &e{player} &aбыл проверен и признан чистым.")
+                .render("{player}", target.getName());
         
         // Отправляем оповещение о чистоте игрока
         if (plugin.getPluginConfig().publicBanMessage()) {
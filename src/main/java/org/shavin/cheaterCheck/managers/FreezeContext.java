@@ -0,0 +1,97 @@
+package org.shavin.cheaterCheck.managers;
+
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+/**
+ * Контекст заморозки/разморозки: кто выполнил действие, из какой команды
+ * и в рамках какой проверки. Передается в FreezeManager и в лог Discord
+ */
+public final class FreezeContext {
+    /**
+     * Действие, выполненное самим плагином (например, при восстановлении состояния)
+     */
+    public static final FreezeContext SYSTEM = new FreezeContext("Система", "плагин", null);
+
+    private final String actorName;
+    private final String source;
+    private final String checkedPlayer;
+
+    private FreezeContext(String actorName, String source, String checkedPlayer) {
+        this.actorName = actorName;
+        this.source = source;
+        this.checkedPlayer = checkedPlayer;
+    }
+
+    /**
+     * Создает контекст для действия, выполненного командой
+     *
+     * @param sender Отправитель команды
+     * @param command Название команды без слеша
+     * @return Контекст
+     */
+    public static FreezeContext command(CommandSender sender, String command) {
+        return new FreezeContext(nameOf(sender), "/" + command, null);
+    }
+
+    /**
+     * Создает контекст для действия в рамках проверки игрока
+     *
+     * @param staff Проверяющий
+     * @param target Проверяемый игрок
+     * @return Контекст
+     */
+    public static FreezeContext check(CommandSender staff, Player target) {
+        return new FreezeContext(nameOf(staff), "проверка", target.getName());
+    }
+
+    /**
+     * Создает контекст для действия от имени указанного администратора
+     *
+     * @param staffName Имя администратора
+     * @return Контекст
+     */
+    public static FreezeContext staff(String staffName) {
+        return new FreezeContext(staffName, "API", null);
+    }
+
+    private static String nameOf(CommandSender sender) {
+        if (sender == null) {
+            return "Система";
+        }
+        return sender instanceof Player ? sender.getName() : "Консоль";
+    }
+
+    /**
+     * @return Имя выполнившего действие
+     */
+    public String getActorName() {
+        return actorName;
+    }
+
+    /**
+     * @return Источник действия (команда, проверка, плагин)
+     */
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * @return Имя проверяемого игрока или null, если действие не связано с проверкой
+     */
+    public String getCheckedPlayer() {
+        return checkedPlayer;
+    }
+
+    /**
+     * Формирует описание источника для логов
+     *
+     * @return Описание
+     */
+    public String describe() {
+        if (checkedPlayer != null) {
+            return "Источник: " + source + " (игрок " + checkedPlayer + ")";
+        }
+        return "Источник: " + source;
+    }
+}
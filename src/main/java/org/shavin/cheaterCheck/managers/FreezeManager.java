@@ -2,13 +2,19 @@ package org.shavin.cheaterCheck.managers;
 
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
+import org.bukkit.Material;
 import org.bukkit.Particle;
 import org.bukkit.Sound;
+import org.bukkit.World;
 import org.bukkit.entity.Player;
+import org.bukkit.event.HandlerList;
+import org.bukkit.metadata.FixedMetadataValue;
 import org.bukkit.potion.PotionEffect;
 import org.bukkit.potion.PotionEffectType;
 import org.bukkit.scheduler.BukkitRunnable;
 import org.shavin.cheaterCheck.CheaterCheck;
+import org.shavin.cheaterCheck.listeners.FreezeListener;
+import org.shavin.cheaterCheck.utils.ParticleRing;
 
 import java.util.Collections;
 import java.util.HashMap;
@@ -21,23 +27,39 @@ public class FreezeManager {
     private final CheaterCheck plugin;
     private final Set<UUID> frozenPlayers;
     private final Map<UUID, Location> frozenLocations;
+    private final Map<UUID, GroundCache> groundCache;
+    private final FreezeListener freezeListener;
+    private boolean listenerRegistered;
     private int particleTaskId = -1;
 
     public FreezeManager(CheaterCheck plugin) {
         this.plugin = plugin;
         this.frozenPlayers = new HashSet<>();
         this.frozenLocations = new HashMap<>();
+        this.groundCache = new HashMap<>();
+        this.freezeListener = new FreezeListener(plugin);
         
         startParticleTask();
     }
 
     /**
-     * Замораживает игрока
+     * Замораживает игрока от имени плагина
      *
      * @param player Игрок для заморозки
      * @return true, если игрок был заморожен, false - если уже был заморожен
      */
     public boolean freezePlayer(Player player) {
+        return freezePlayer(player, FreezeContext.SYSTEM);
+    }
+
+    /**
+     * Замораживает игрока
+     *
+     * @param player Игрок для заморозки
+     * @param context Контекст заморозки (кто, из какой команды, в рамках какой проверки)
+     * @return true, если игрок был заморожен, false - если уже был заморожен
+     */
+    public boolean freezePlayer(Player player, FreezeContext context) {
         if (player == null || !player.isOnline()) return false;
         
         UUID playerUuid = player.getUniqueId();
@@ -52,6 +74,7 @@ public class FreezeManager {
         
         frozenPlayers.add(playerUuid);
         frozenLocations.put(playerUuid, player.getLocation());
+        updateListenerRegistration();
         
         // Отправляем сообщение о заморозке
         plugin.getMessageManager().sendFrozenMessage(player);
@@ -81,22 +104,7 @@ public class FreezeManager {
         
         // Логируем заморозку в Discord
         if (plugin.getExtendedConfig().isDiscordLoggingEnabled()) {
-            // Определяем имя администратора, который вызвал заморозку (упрощенная логика)
-            String staffName = "Система";
-            try {
-                StackTraceElement[] stackTrace = Thread.currentThread().getStackTrace();
-                for (StackTraceElement element : stackTrace) {
-                    if (element.getClassName().contains("commands")) {
-                        Class<?> callerClass = Class.forName(element.getClassName());
-                        if (callerClass.getSimpleName().contains("Command")) {
-                            staffName = "Администратор";
-                            break;
-                        }
-                    }
-                }
-            } catch (Exception ignored) {}
-            
-            org.shavin.cheaterCheck.utils.DiscordWebhook.sendFreezeLog(plugin, player.getName(), staffName);
+            org.shavin.cheaterCheck.utils.DiscordWebhook.sendFreezeLog(plugin, player.getName(), context);
         }
         
         return true;
@@ -110,23 +118,27 @@ public class FreezeManager {
      * @return true, если игрок был заморожен, false - если уже был заморожен
      */
     public boolean freezePlayer(Player player, String staffName) {
-        boolean result = freezePlayer(player);
-        
-        // Если успешно заморожен и включено логирование в Discord
-        if (result && plugin.getExtendedConfig().isDiscordLoggingEnabled()) {
-            org.shavin.cheaterCheck.utils.DiscordWebhook.sendFreezeLog(plugin, player.getName(), staffName);
-        }
-        
-        return result;
+        return freezePlayer(player, FreezeContext.staff(staffName));
     }
 
     /**
-     * Размораживает игрока
+     * Размораживает игрока от имени плагина
      *
      * @param player Игрок для разморозки
      * @return true, если игрок был разморожен, false - если не был заморожен
      */
     public boolean unfreezePlayer(Player player) {
+        return unfreezePlayer(player, FreezeContext.SYSTEM);
+    }
+
+    /**
+     * Размораживает игрока
+     *
+     * @param player Игрок для разморозки
+     * @param context Контекст разморозки (кто, из какой команды, в рамках какой проверки)
+     * @return true, если игрок был разморожен, false - если не был заморожен
+     */
+    public boolean unfreezePlayer(Player player, FreezeContext context) {
         if (player == null || !player.isOnline()) return false;
         
         UUID playerUuid = player.getUniqueId();
@@ -136,6 +148,8 @@ public class FreezeManager {
         
         frozenPlayers.remove(playerUuid);
         frozenLocations.remove(playerUuid);
+        groundCache.remove(playerUuid);
+        updateListenerRegistration();
         
         // Удаляем эффект слепоты, если он есть
         if (player.hasPotionEffect(PotionEffectType.BLINDNESS)) {
@@ -147,22 +161,7 @@ public class FreezeManager {
         
         // Логируем разморозку в Discord
         if (plugin.getExtendedConfig().isDiscordLoggingEnabled()) {
-            // Определяем имя администратора (упрощенная логика)
-            String staffName = "Система";
-            try {
-                StackTraceElement[] stackTrace = Thread.currentThread().getStackTrace();
-                for (StackTraceElement element : stackTrace) {
-                    if (element.getClassName().contains("commands")) {
-                        Class<?> callerClass = Class.forName(element.getClassName());
-                        if (callerClass.getSimpleName().contains("Command")) {
-                            staffName = "Администратор";
-                            break;
-                        }
-                    }
-                }
-            } catch (Exception ignored) {}
-            
-            org.shavin.cheaterCheck.utils.DiscordWebhook.sendUnfreezeLog(plugin, player.getName(), staffName);
+            org.shavin.cheaterCheck.utils.DiscordWebhook.sendUnfreezeLog(plugin, player.getName(), context);
         }
         
         return true;
@@ -176,14 +175,7 @@ public class FreezeManager {
      * @return true, если игрок был разморожен, false - если не был заморожен
      */
     public boolean unfreezePlayer(Player player, String staffName) {
-        boolean result = unfreezePlayer(player);
-        
-        // Если успешно разморожен и включено логирование в Discord
-        if (result && plugin.getExtendedConfig().isDiscordLoggingEnabled()) {
-            org.shavin.cheaterCheck.utils.DiscordWebhook.sendUnfreezeLog(plugin, player.getName(), staffName);
-        }
-        
-        return result;
+        return unfreezePlayer(player, FreezeContext.staff(staffName));
     }
 
     /**
@@ -209,6 +201,8 @@ public class FreezeManager {
         
         frozenPlayers.remove(playerUuid);
         frozenLocations.remove(playerUuid);
+        groundCache.remove(playerUuid);
+        updateListenerRegistration();
         
         // Логирование разморозки
         plugin.getLogger().info("Игрок с UUID " + playerUuid + " был разморожен.");
@@ -234,6 +228,29 @@ public class FreezeManager {
         
         frozenPlayers.clear();
         frozenLocations.clear();
+        groundCache.clear();
+        updateListenerRegistration();
+    }
+
+    /**
+     * Регистрирует слушатель заморозки при первой заморозке и снимает его после разморозки последнего игрока,
+     * чтобы при отсутствии замороженных игроков события движения и взаимодействия не проходили через него
+     */
+    private void updateListenerRegistration() {
+        boolean shouldBeRegistered = !frozenPlayers.isEmpty();
+        if (shouldBeRegistered == listenerRegistered) {
+            return;
+        }
+        
+        if (shouldBeRegistered) {
+            if (!plugin.isEnabled()) {
+                return;
+            }
+            plugin.getServer().getPluginManager().registerEvents(freezeListener, plugin);
+        } else {
+            HandlerList.unregisterAll(freezeListener);
+        }
+        listenerRegistered = shouldBeRegistered;
     }
 
     /**
@@ -291,6 +308,15 @@ public class FreezeManager {
                 .anyMatch(cmd -> cmd.equalsIgnoreCase(baseCommand));
     }
 
+    /**
+     * Перечитывает настройки частиц из конфигурации.
+     * Вызывается при перезагрузке плагина
+     */
+    public void reloadSettings() {
+        cancelParticleTask();
+        startParticleTask();
+    }
+
     /**
      * Запускает задачу отображения частиц вокруг замороженных игроков
      */
@@ -299,41 +325,43 @@ public class FreezeManager {
             return;
         }
         
+        // Тип частиц и смещения точек вычисляются один раз при загрузке настроек
+        Particle particle;
+        try {
+            particle = Particle.valueOf(plugin.getPluginConfig().getParticleType());
+        } catch (IllegalArgumentException e) {
+            plugin.getLogger().warning("Неверно указан тип частиц в конфигурации: " + 
+                    plugin.getPluginConfig().getParticleType());
+            return;
+        }
+        
+        final ParticleRing particleRing = new ParticleRing(particle,
+                plugin.getPluginConfig().getParticlePoints(),
+                plugin.getPluginConfig().getParticleRadius(),
+                plugin.getPluginConfig().getParticleHeight(),
+                plugin.getPluginConfig().getParticleFrames(),
+                plugin.getPluginConfig().getParticleRotation(),
+                plugin.getPluginConfig().getParticlePulse(),
+                plugin.getPluginConfig().getParticleViewDistance());
+        
         particleTaskId = new BukkitRunnable() {
             @Override
             public void run() {
+                if (frozenPlayers.isEmpty()) {
+                    return;
+                }
+                
                 for (UUID playerUuid : frozenPlayers) {
                     Player player = Bukkit.getPlayer(playerUuid);
                     if (player != null && player.isOnline()) {
-                        showParticlesAroundPlayer(player);
+                        particleRing.render(player.getLocation());
                     }
                 }
+                particleRing.nextFrame();
             }
         }.runTaskTimer(plugin, 0L, 10L).getTaskId();
     }
 
-    /**
-     * Отображает частицы вокруг замороженного игрока
-     *
-     * @param player Игрок
-     */
-    private void showParticlesAroundPlayer(Player player) {
-        try {
-            Location location = player.getLocation().add(0, 1, 0);
-            Particle particle = Particle.valueOf(plugin.getPluginConfig().getParticleType());
-            
-            for (double i = 0; i < Math.PI * 2; i += Math.PI / 8) {
-                double x = Math.cos(i) * 0.9;
-                double z = Math.sin(i) * 0.9;
-                location.getWorld().spawnParticle(particle, location.getX() + x, location.getY(), location.getZ() + z, 1, 0, 0, 0, 0);
-            }
-        } catch (IllegalArgumentException e) {
-            plugin.getLogger().warning("Неверно указан тип частиц в конфигурации: " + 
-                    plugin.getPluginConfig().getParticleType());
-            cancelParticleTask();
-        }
-    }
-
     /**
      * Отменяет задачу отображения частиц
      */
@@ -354,7 +382,9 @@ public class FreezeManager {
     }
     
     /**
-     * Телепортирует игрока на землю, если он находится в воздухе
+     * Телепортирует игрока на землю, если он находится в воздухе.
+     * Результат проверки кешируется для замороженного игрока по столбцу блоков и высоте,
+     * поэтому повторные вызовы для уже стоящего на земле игрока проверяют только блок под ним
      *
      * @param player Игрок для телепортации
      * @return true, если игрок был телепортирован на землю
@@ -362,29 +392,73 @@ public class FreezeManager {
     public boolean teleportToGround(Player player) {
         if (player == null || !player.isOnline()) return false;
         
-        if (!isPlayerInAir(player)) return false;
-        
+        UUID playerUuid = player.getUniqueId();
         Location currentLocation = player.getLocation();
+        GroundCache cached = groundCache.get(playerUuid);
+        if (cached != null && cached.matches(currentLocation)) {
+            return false;
+        }
+        
+        boolean frozen = frozenPlayers.contains(playerUuid);
+        if (!isPlayerInAir(currentLocation)) {
+            if (frozen) {
+                groundCache.put(playerUuid, new GroundCache(currentLocation));
+            }
+            return false;
+        }
+        
         Location groundLocation = findSafeGroundLocation(currentLocation);
         
         if (groundLocation != null) {
+            if (frozen) {
+                // Разрешаем телепортацию замороженного игрока в FreezeListener
+                player.setMetadata("cheatercheck_teleport", new FixedMetadataValue(plugin, true));
+            }
             player.teleport(groundLocation);
+            if (frozen) {
+                groundCache.put(playerUuid, new GroundCache(groundLocation));
+            }
             
             return true;
         }
         
+        // Безопасная земля не найдена - запоминаем, чтобы не сканировать столбец повторно
+        if (frozen) {
+            groundCache.put(playerUuid, new GroundCache(currentLocation));
+        }
         return false;
     }
     
+    /**
+     * Сбрасывает кеш проверки земли для игрока (например, после телепортации)
+     *
+     * @param playerUuid UUID игрока
+     */
+    public void invalidateGroundCache(UUID playerUuid) {
+        groundCache.remove(playerUuid);
+    }
+    
+    /**
+     * Сбрасывает кеш проверки земли для всех игроков, стоящих в указанном столбце блоков
+     *
+     * @param world Мир
+     * @param blockX Координата X блока
+     * @param blockZ Координата Z блока
+     */
+    public void invalidateGroundColumn(World world, int blockX, int blockZ) {
+        if (groundCache.isEmpty()) {
+            return;
+        }
+        groundCache.values().removeIf(cache -> cache.isColumn(world, blockX, blockZ));
+    }
+    
     /**
      * Проверяет, находится ли игрок в воздухе
      *
-     * @param player Игрок
+     * @param playerLoc Локация игрока
      * @return true, если игрок в воздухе
      */
-    private boolean isPlayerInAir(Player player) {
-        Location playerLoc = player.getLocation();
-        
+    private boolean isPlayerInAir(Location playerLoc) {
         // Проверяем, есть ли под игроком воздух или другой прозрачный блок
         for (int i = 1; i <= 5; i++) {
             Location blockLoc = playerLoc.clone().subtract(0, i, 0);
@@ -431,4 +505,36 @@ public class FreezeManager {
         
         return foundGround ? result : null;
     }
+    
+    /**
+     * Результат проверки земли для замороженного игрока: столбец блоков и высота, на которой
+     * телепортация на землю не требуется. Блок под игроком запоминается и сверяется при каждом
+     * использовании: его могут сдвинуть поршень, смыть жидкость или сжечь огонь без событий
+     * разрушения, которые сбрасывают кеш
+     */
+    private static final class GroundCache {
+        private final World world;
+        private final int blockX;
+        private final int blockY;
+        private final int blockZ;
+        private final Material support;
+        
+        private GroundCache(Location location) {
+            this.world = location.getWorld();
+            this.blockX = location.getBlockX();
+            this.blockY = location.getBlockY();
+            this.blockZ = location.getBlockZ();
+            this.support = world.getBlockAt(blockX, blockY - 1, blockZ).getType();
+        }
+        
+        private boolean matches(Location location) {
+            return location.getBlockY() == blockY && location.getBlockX() == blockX
+                    && location.getBlockZ() == blockZ && location.getWorld() == world
+                    && world.getBlockAt(blockX, blockY - 1, blockZ).getType() == support;
+        }
+        
+        private boolean isColumn(World world, int blockX, int blockZ) {
+            return this.blockX == blockX && this.blockZ == blockZ && this.world == world;
+        }
+    }
 } 
\ No newline at end of file
@@ -1,9 +1,15 @@
 package org.shavin.cheaterCheck.managers;
 
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.title.Title;
+import org.bukkit.Bukkit;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 import org.shavin.cheaterCheck.CheaterCheck;
 import org.shavin.cheaterCheck.utils.ChatUtils;
+import org.shavin.cheaterCheck.utils.MessageTemplate;
+
+import java.time.Duration;
 
 public class MessageManager {
     private final CheaterCheck plugin;
@@ -32,6 +38,20 @@ public class MessageManager {
         ChatUtils.sendMessage(player, plugin.getPluginConfig().getPrefix() + message);
     }
 
+    /**
+     * Отправляет сообщение из скомпилированного шаблона с префиксом плагина
+     *
+     * @param sender Получатель
+     * @param template Шаблон сообщения
+     * @param placeholders Пары плейсхолдер - значение
+     */
+    public void sendMessage(CommandSender sender, MessageTemplate template, String... placeholders) {
+        if (sender == null || (sender instanceof Player && !((Player) sender).isOnline())) {
+            return;
+        }
+        sender.sendMessage(prefixed(template).toComponent(placeholders));
+    }
+
     /**
      * Отправляет предупреждение с префиксом плагина
      *
@@ -49,7 +69,32 @@ public class MessageManager {
      * @param permission Разрешение
      */
     public void broadcastToPermission(String message, String permission) {
-        ChatUtils.broadcastToPermission(plugin.getPluginConfig().getPrefix() + message, permission);
+        if (message == null || message.isEmpty()) return;
+        broadcast(ChatUtils.colorizeComponent(plugin.getPluginConfig().getPrefix() + message), permission);
+    }
+
+    /**
+     * Отправляет сообщение из скомпилированного шаблона всем игрокам с указанным разрешением.
+     * Шаблон заполняется один раз для всех получателей
+     *
+     * @param template Шаблон сообщения
+     * @param permission Разрешение
+     * @param placeholders Пары плейсхолдер - значение
+     */
+    public void broadcastToPermission(MessageTemplate template, String permission, String... placeholders) {
+        broadcast(prefixed(template).toComponent(placeholders), permission);
+    }
+
+    /**
+     * Отправляет компонент игрокам с разрешением из реестра администраторов и в консоль
+     */
+    private void broadcast(Component message, String permission) {
+        plugin.getStaffAudience().audience(permission).sendMessage(message);
+        Bukkit.getConsoleSender().sendMessage(message);
+    }
+
+    private MessageTemplate prefixed(MessageTemplate template) {
+        return template.withPrefix(plugin.getPluginConfig().getPrefixTemplate());
     }
 
     /**
@@ -58,7 +103,7 @@ public class MessageManager {
      * @param player Игрок
      */
     public void sendFrozenMessage(Player player) {
-        sendMessage(player, plugin.getPluginConfig().getFreezeMessage("frozen", 
+        sendMessage(player, plugin.getPluginConfig().getFreezeTemplate("frozen", 
                 "&cВы были заморожены администратором для проверки. Пожалуйста, ожидайте."));
     }
 
@@ -69,9 +114,9 @@ public class MessageManager {
      * @param targetName Имя замороженного игрока
      */
     public void sendFrozenStaffMessage(CommandSender sender, String targetName) {
-        String message = plugin.getPluginConfig().getFreezeMessage("frozen-staff", 
+        MessageTemplate message = plugin.getPluginConfig().getFreezeTemplate("frozen-staff",
                 "&aИгрок &e{player} &aбыл заморожен для проверки.");
-        sendMessage(sender, ChatUtils.replacePlaceholders(message, "{player}", targetName));
+        sendMessage(sender, message, "{player}", targetName);
     }
 
     /**
@@ -80,7 +125,7 @@ public class MessageManager {
      * @param player Игрок
      */
     public void sendUnfrozenMessage(Player player) {
-        sendMessage(player, plugin.getPluginConfig().getFreezeMessage("unfrozen", 
+        sendMessage(player, plugin.getPluginConfig().getFreezeTemplate("unfrozen", 
                 "&aВы были разморожены."));
     }
 
@@ -91,9 +136,9 @@ public class MessageManager {
      * @param targetName Имя размороженного игрока
      */
     public void sendUnfrozenStaffMessage(CommandSender sender, String targetName) {
-        String message = plugin.getPluginConfig().getFreezeMessage("unfrozen-staff", 
+        MessageTemplate message = plugin.getPluginConfig().getFreezeTemplate("unfrozen-staff",
                 "&aИгрок &e{player} &aбыл разморожен.");
-        sendMessage(sender, ChatUtils.replacePlaceholders(message, "{player}", targetName));
+        sendMessage(sender, message, "{player}", targetName);
     }
 
     /**
@@ -103,9 +148,9 @@ public class MessageManager {
      * @param targetName Имя игрока
      */
     public void sendAlreadyFrozenMessage(CommandSender sender, String targetName) {
-        String message = plugin.getPluginConfig().getFreezeMessage("already-frozen", 
+        MessageTemplate message = plugin.getPluginConfig().getFreezeTemplate("already-frozen",
                 "&cИгрок &e{player} &cуже заморожен.");
-        sendWarning(sender, ChatUtils.replacePlaceholders(message, "{player}", targetName));
+        sendWarning(sender, message.render("{player}", targetName));
     }
 
     /**
@@ -115,9 +160,9 @@ public class MessageManager {
      * @param targetName Имя игрока
      */
     public void sendNotFrozenMessage(CommandSender sender, String targetName) {
-        String message = plugin.getPluginConfig().getFreezeMessage("not-frozen", 
+        MessageTemplate message = plugin.getPluginConfig().getFreezeTemplate("not-frozen",
                 "&cИгрок &e{player} &cне заморожен.");
-        sendWarning(sender, ChatUtils.replacePlaceholders(message, "{player}", targetName));
+        sendWarning(sender, message.render("{player}", targetName));
     }
 
     /**
@@ -126,10 +171,10 @@ public class MessageManager {
      * @param player Игрок
      */
     public void sendScreenshareRequest(Player player) {
-        String message = plugin.getPluginConfig().getScreenshareMessage("request-received", 
+        MessageTemplate message = plugin.getPluginConfig().getScreenshareTemplate("request-received",
                 "&c&lВы должны предоставить скриншер! &7Используйте Discord: &b&l{discord}");
         String discord = plugin.getPluginConfig().getDiscord();
-        sendMessage(player, ChatUtils.replacePlaceholders(message, "{discord}", discord));
+        sendMessage(player, message, "{discord}", discord);
     }
 
     /**
@@ -139,9 +184,9 @@ public class MessageManager {
      * @param targetName Имя игрока
      */
     public void sendScreenshareRequestSent(CommandSender sender, String targetName) {
-        String message = plugin.getPluginConfig().getScreenshareMessage("request-sent", 
+        MessageTemplate message = plugin.getPluginConfig().getScreenshareTemplate("request-sent",
                 "&aЗапрос скриншера отправлен игроку &e{player}&a.");
-        sendMessage(sender, ChatUtils.replacePlaceholders(message, "{player}", targetName));
+        sendMessage(sender, message, "{player}", targetName);
     }
 
     /**
@@ -199,13 +244,15 @@ public class MessageManager {
     public void sendCheckTitle(Player player) {
         if (player == null || !player.isOnline()) return;
         
-        // Отправляем Title
-        player.sendTitle(
-            plugin.getPluginConfig().getTitleMain(),
-            plugin.getPluginConfig().getTitleSubtitle(),
-            10, // fade in
-            plugin.getPluginConfig().getPeriodicTitleDuration() * 20, // stay
-            10  // fade out
-        );
+        // Компоненты заголовка собираются один раз и переиспользуются до перезагрузки
+        player.showTitle(Title.title(
+            plugin.getPluginConfig().getTitleMainTemplate().toComponent(),
+            plugin.getPluginConfig().getTitleSubtitleTemplate().toComponent(),
+            Title.Times.times(
+                Duration.ofMillis(500), // fade in
+                Duration.ofSeconds(plugin.getPluginConfig().getPeriodicTitleDuration()), // stay
+                Duration.ofMillis(500)  // fade out
+            )
+        ));
     }
 } 
\ No newline at end of file
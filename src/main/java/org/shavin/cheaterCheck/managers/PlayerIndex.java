@@ -0,0 +1,74 @@
+package org.shavin.cheaterCheck.managers;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.shavin.cheaterCheck.utils.PrefixIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Индекс имен игроков онлайн для автодополнения команд.
+ * Обновляется при входе и выходе игроков, поэтому подсказка не перебирает весь онлайн
+ */
+public class PlayerIndex implements Listener {
+    private volatile PrefixIndex names = PrefixIndex.empty();
+
+    public PlayerIndex() {
+        rebuild();
+    }
+
+    /**
+     * Заново собирает индекс из игроков онлайн
+     */
+    public synchronized void rebuild() {
+        List<String> online = new ArrayList<>();
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            online.add(player.getName());
+        }
+        names = PrefixIndex.of(online);
+    }
+
+    /**
+     * Находит имена игроков онлайн по началу имени без учета регистра
+     *
+     * @param prefix Начало имени
+     * @return Имена в алфавитном порядке
+     */
+    public List<String> complete(String prefix) {
+        return names.complete(prefix);
+    }
+
+    /**
+     * Находит имена игроков онлайн по началу имени без учета регистра
+     *
+     * @param prefix Начало имени
+     * @param exclude Исключает имена по ключу в нижнем регистре
+     * @return Имена в алфавитном порядке
+     */
+    public List<String> complete(String prefix, Predicate<String> exclude) {
+        return names.complete(prefix, exclude);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        String name = event.getPlayer().getName();
+        synchronized (this) {
+            names = names.with(name);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        String name = event.getPlayer().getName();
+        synchronized (this) {
+            names = names.without(name);
+        }
+    }
+}
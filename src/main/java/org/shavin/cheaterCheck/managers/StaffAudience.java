@@ -0,0 +1,190 @@
+package org.shavin.cheaterCheck.managers;
+
+import net.kyori.adventure.audience.Audience;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.scheduler.BukkitTask;
+import org.shavin.cheaterCheck.CheaterCheck;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Реестр игроков онлайн, у которых есть разрешения плагина.
+ * Разрешения проверяются при входе, смене мира, перезагрузке и периодически,
+ * а рассылки отправляются готовой аудитории без перебора всех игроков сервера
+ */
+public class StaffAudience implements Listener {
+    // Период полной перепроверки: Bukkit не сообщает об изменении прав (например, /lp user ... set)
+    private static final long REFRESH_PERIOD_TICKS = 600L;
+
+    private final CheaterCheck plugin;
+    private final Map<String, Group> groups = new ConcurrentHashMap<>();
+    private BukkitTask refreshTask;
+
+    public StaffAudience(CheaterCheck plugin) {
+        this.plugin = plugin;
+
+        // Разрешения, по которым идут рассылки, отслеживаются сразу
+        groups.computeIfAbsent("cheatercheck.check", this::createGroup);
+        groups.computeIfAbsent("cheatercheck.notifications", this::createGroup);
+    }
+
+    /**
+     * Запускает периодическую перепроверку разрешений
+     */
+    public void startTask() {
+        cancelTask();
+        refreshTask = Bukkit.getScheduler().runTaskTimer(plugin, this::refresh,
+                REFRESH_PERIOD_TICKS, REFRESH_PERIOD_TICKS);
+    }
+
+    /**
+     * Останавливает периодическую перепроверку разрешений
+     */
+    public void cancelTask() {
+        if (refreshTask != null && !refreshTask.isCancelled()) {
+            refreshTask.cancel();
+        }
+        refreshTask = null;
+    }
+
+    /**
+     * Возвращает аудиторию игроков онлайн с указанным разрешением.
+     * Разрешение, запрошенное впервые, начинает отслеживаться
+     *
+     * @param permission Разрешение
+     * @return Аудитория (снимок на момент вызова)
+     */
+    public Audience audience(String permission) {
+        return groups.computeIfAbsent(permission, this::createGroup).audience;
+    }
+
+    /**
+     * Возвращает игроков онлайн с указанным разрешением
+     *
+     * @param permission Разрешение
+     * @return Неизменяемый список игроков
+     */
+    public List<Player> getPlayers(String permission) {
+        return groups.computeIfAbsent(permission, this::createGroup).members;
+    }
+
+    /**
+     * Перепроверяет разрешения всех игроков онлайн
+     */
+    public void refresh() {
+        for (Group group : groups.values()) {
+            group.replace(scan(group.permission));
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        update(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        UUID playerUuid = event.getPlayer().getUniqueId();
+        for (Group group : groups.values()) {
+            group.remove(playerUuid);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerChangedWorld(PlayerChangedWorldEvent event) {
+        // Права могут зависеть от мира
+        update(event.getPlayer());
+    }
+
+    private void update(Player player) {
+        for (Group group : groups.values()) {
+            if (player.hasPermission(group.permission)) {
+                group.add(player);
+            } else {
+                group.remove(player.getUniqueId());
+            }
+        }
+    }
+
+    private Group createGroup(String permission) {
+        Group group = new Group(permission);
+        group.replace(scan(permission));
+        return group;
+    }
+
+    private static List<Player> scan(String permission) {
+        List<Player> players = new ArrayList<>();
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            if (player.hasPermission(permission)) {
+                players.add(player);
+            }
+        }
+        return players;
+    }
+
+    /**
+     * Игроки с одним разрешением. Список публикуется целиком при каждом изменении,
+     * поэтому рассылка читает его без блокировок
+     */
+    private static final class Group {
+        private final String permission;
+        private volatile List<Player> members = Collections.emptyList();
+        private volatile Audience audience = Audience.empty();
+
+        private Group(String permission) {
+            this.permission = permission;
+        }
+
+        private synchronized void add(Player player) {
+            if (indexOf(player.getUniqueId()) >= 0) {
+                return;
+            }
+            List<Player> updated = new ArrayList<>(members.size() + 1);
+            updated.addAll(members);
+            updated.add(player);
+            publish(updated);
+        }
+
+        private synchronized void remove(UUID playerUuid) {
+            int index = indexOf(playerUuid);
+            if (index < 0) {
+                return;
+            }
+            List<Player> updated = new ArrayList<>(members);
+            updated.remove(index);
+            publish(updated);
+        }
+
+        private synchronized void replace(List<Player> players) {
+            publish(players);
+        }
+
+        private int indexOf(UUID playerUuid) {
+            List<Player> current = members;
+            for (int i = 0; i < current.size(); i++) {
+                if (current.get(i).getUniqueId().equals(playerUuid)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private void publish(List<Player> players) {
+            List<Player> snapshot = Collections.unmodifiableList(players);
+            members = snapshot;
+            audience = Audience.audience(snapshot);
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package org.shavin.cheaterCheck.utils;
+
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * Хранилище времени последней активности игроков без упаковки в Long.
+ * Каждому игроку при входе выдается постоянный слот, время хранится в AtomicLongArray.
+ * Индекс UUID -> слот - открытая адресация по двум long, пересобирается при входе/выходе
+ * (copy-on-write), поэтому чтение и запись времени безопасны из любого потока и ничего не выделяют.
+ * Асинхронные потоки дополнительно помечают слот в битовой маске ожидания, которую
+ * основной поток разбирает одним проходом за тик (см. {@link #drainPending(Consumer)}).
+ */
+public class ActivityStore {
+    /**
+     * Значение, возвращаемое для незарегистрированного игрока
+     */
+    public static final long ABSENT = Long.MIN_VALUE;
+
+    private static final int CHUNK_SHIFT = 6;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private volatile Index index = new Index(16);
+    private volatile AtomicLongArray[] chunks = new AtomicLongArray[0];
+    private volatile AtomicLong[] pending = new AtomicLong[0];
+    private final AtomicBoolean hasPending = new AtomicBoolean();
+
+    // Изменяются только под блокировкой
+    private UUID[] owners = new UUID[CHUNK_SIZE];
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private int nextSlot;
+    private int size;
+
+    /**
+     * Регистрирует игрока и выдает ему слот
+     *
+     * @param uuid UUID игрока
+     * @param timestamp Начальное время активности
+     * @return Слот игрока
+     */
+    public synchronized int register(UUID uuid, long timestamp) {
+        int existing = index.find(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+        if (existing >= 0) {
+            chunk(existing).set(existing & CHUNK_MASK, timestamp);
+            return existing;
+        }
+
+        int slot = freeCount > 0 ? freeSlots[--freeCount] : nextSlot++;
+        int chunkIndex = slot >>> CHUNK_SHIFT;
+        AtomicLongArray[] currentChunks = chunks;
+        if (chunkIndex >= currentChunks.length) {
+            // Существующие блоки переносятся по ссылке, поэтому параллельные записи не теряются
+            AtomicLongArray[] grown = Arrays.copyOf(currentChunks, chunkIndex + 1);
+            grown[chunkIndex] = new AtomicLongArray(CHUNK_SIZE);
+            AtomicLong[] grownPending = Arrays.copyOf(pending, chunkIndex + 1);
+            grownPending[chunkIndex] = new AtomicLong();
+            pending = grownPending;
+            chunks = grown;
+        }
+        if (slot >= owners.length) {
+            owners = Arrays.copyOf(owners, owners.length << 1);
+        }
+
+        owners[slot] = uuid;
+        chunks[chunkIndex].set(slot & CHUNK_MASK, timestamp);
+        size++;
+        index = rebuildIndex();
+        return slot;
+    }
+
+    /**
+     * Удаляет игрока и освобождает его слот
+     *
+     * @param uuid UUID игрока
+     * @return true, если игрок был зарегистрирован
+     */
+    public synchronized boolean unregister(UUID uuid) {
+        int slot = index.find(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+        if (slot < 0) {
+            return false;
+        }
+
+        owners[slot] = null;
+        chunk(slot).set(slot & CHUNK_MASK, ABSENT);
+        pending[slot >>> CHUNK_SHIFT].getAndAccumulate(~(1L << (slot & CHUNK_MASK)), (word, mask) -> word & mask);
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount << 1);
+        }
+        freeSlots[freeCount++] = slot;
+        size--;
+        index = rebuildIndex();
+        return true;
+    }
+
+    /**
+     * Удаляет всех игроков
+     */
+    public synchronized void clear() {
+        index = new Index(16);
+        chunks = new AtomicLongArray[0];
+        pending = new AtomicLong[0];
+        hasPending.set(false);
+        owners = new UUID[CHUNK_SIZE];
+        freeCount = 0;
+        nextSlot = 0;
+        size = 0;
+    }
+
+    /**
+     * Возвращает слот игрока
+     *
+     * @param uuid UUID игрока
+     * @return Слот или -1, если игрок не зарегистрирован
+     */
+    public int slotOf(UUID uuid) {
+        return index.find(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    /**
+     * Записывает время активности игрока. Безопасно вызывать из любого потока
+     *
+     * @param uuid UUID игрока
+     * @param timestamp Время активности
+     * @return true, если игрок зарегистрирован и время записано
+     */
+    public boolean record(UUID uuid, long timestamp) {
+        int slot = slotOf(uuid);
+        if (slot < 0) {
+            return false;
+        }
+        chunk(slot).set(slot & CHUNK_MASK, timestamp);
+        return true;
+    }
+
+    /**
+     * Возвращает время последней активности игрока. Безопасно вызывать из любого потока
+     *
+     * @param uuid UUID игрока
+     * @return Время активности или {@link #ABSENT}, если игрок не зарегистрирован
+     */
+    public long get(UUID uuid) {
+        int slot = slotOf(uuid);
+        return slot < 0 ? ABSENT : chunk(slot).get(slot & CHUNK_MASK);
+    }
+
+    /**
+     * Записывает время активности из асинхронного потока и помечает слот как ожидающий
+     * обработки в основном потоке. Не выделяет память и не блокирует
+     *
+     * @param uuid UUID игрока
+     * @param timestamp Время активности
+     * @return true, если игрок зарегистрирован и время записано
+     */
+    public boolean recordAsync(UUID uuid, long timestamp) {
+        int slot = slotOf(uuid);
+        if (slot < 0) {
+            return false;
+        }
+        int chunkIndex = slot >>> CHUNK_SHIFT;
+        chunks[chunkIndex].set(slot & CHUNK_MASK, timestamp);
+
+        AtomicLong word = pending[chunkIndex];
+        long bit = 1L << (slot & CHUNK_MASK);
+        // Повторные сообщения от того же игрока до следующего тика не меняют маску
+        if ((word.get() & bit) == 0) {
+            word.getAndAccumulate(bit, (current, mask) -> current | mask);
+        }
+        hasPending.lazySet(true);
+        return true;
+    }
+
+    /**
+     * Передает обработчику UUID всех игроков, помеченных через {@link #recordAsync(UUID, long)}
+     * с прошлого вызова. Предназначен для вызова из основного потока раз в тик
+     *
+     * @param consumer Обработчик
+     */
+    public void drainPending(Consumer<UUID> consumer) {
+        if (!hasPending.get() || !hasPending.compareAndSet(true, false)) {
+            return;
+        }
+
+        AtomicLong[] words = pending;
+        for (int chunkIndex = 0; chunkIndex < words.length; chunkIndex++) {
+            long bits = words[chunkIndex].getAndSet(0L);
+            while (bits != 0L) {
+                int slot = (chunkIndex << CHUNK_SHIFT) | Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                UUID owner = ownerOf(slot);
+                if (owner != null) {
+                    consumer.accept(owner);
+                }
+            }
+        }
+    }
+
+    private synchronized UUID ownerOf(int slot) {
+        return slot < owners.length ? owners[slot] : null;
+    }
+
+    public boolean contains(UUID uuid) {
+        return slotOf(uuid) >= 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private AtomicLongArray chunk(int slot) {
+        return chunks[slot >>> CHUNK_SHIFT];
+    }
+
+    private Index rebuildIndex() {
+        int capacity = 16;
+        while (capacity < size * 2) {
+            capacity <<= 1;
+        }
+        Index rebuilt = new Index(capacity);
+        for (int slot = 0; slot < nextSlot; slot++) {
+            UUID owner = owners[slot];
+            if (owner != null) {
+                rebuilt.insert(owner.getMostSignificantBits(), owner.getLeastSignificantBits(), slot);
+            }
+        }
+        return rebuilt;
+    }
+
+    /**
+     * Неизменяемая после публикации таблица открытой адресации UUID -> слот
+     */
+    private static final class Index {
+        private final long[] most;
+        private final long[] least;
+        private final int[] slots;
+        private final int mask;
+
+        private Index(int capacity) {
+            this.most = new long[capacity];
+            this.least = new long[capacity];
+            this.slots = new int[capacity];
+            this.mask = capacity - 1;
+            Arrays.fill(slots, -1);
+        }
+
+        private void insert(long msb, long lsb, int slot) {
+            int i = hash(msb, lsb) & mask;
+            while (slots[i] >= 0) {
+                i = (i + 1) & mask;
+            }
+            most[i] = msb;
+            least[i] = lsb;
+            slots[i] = slot;
+        }
+
+        private int find(long msb, long lsb) {
+            int i = hash(msb, lsb) & mask;
+            int slot;
+            while ((slot = slots[i]) >= 0) {
+                if (most[i] == msb && least[i] == lsb) {
+                    return slot;
+                }
+                i = (i + 1) & mask;
+            }
+            return -1;
+        }
+
+        private static int hash(long msb, long lsb) {
+            long h = msb ^ (lsb * 0x9E3779B97F4A7C15L);
+            h ^= h >>> 33;
+            h *= 0xFF51AFD7ED558CCDL;
+            h ^= h >>> 33;
+            return (int) h;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package org.shavin.cheaterCheck.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Список игроков, которых нельзя проверить, в памяти.
+ * Имена хранятся в нижнем регистре, а UUID (если известен) позволяет узнать игрока
+ * после смены ника. Проверка наличия - поиск в хэш-таблице без копирования списка.
+ * Потокобезопасен: снимки для сохранения собираются под той же блокировкой
+ */
+public final class BypassList {
+    // Имя в нижнем регистре -> UUID или null. Порядок добавления сохраняется для вывода списка
+    private final Map<String, UUID> names = new LinkedHashMap<>();
+    private final Map<UUID, String> uuids = new HashMap<>();
+    // Имена для автодополнения, пересобираются точечно при каждом изменении
+    private volatile PrefixIndex index = PrefixIndex.empty();
+
+    /**
+     * Приводит имя игрока к ключу списка
+     *
+     * @param playerName Имя игрока
+     * @return Имя в нижнем регистре
+     */
+    public static String normalize(String playerName) {
+        return playerName.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Заменяет содержимое списка
+     *
+     * @param entries Имена игроков и их UUID (UUID может быть null)
+     */
+    public synchronized void load(Map<String, UUID> entries) {
+        names.clear();
+        uuids.clear();
+        for (Map.Entry<String, UUID> entry : entries.entrySet()) {
+            put(normalize(entry.getKey()), entry.getValue());
+        }
+        index = PrefixIndex.of(names.keySet());
+    }
+
+    /**
+     * Проверяет наличие игрока по имени
+     *
+     * @param playerName Имя игрока
+     * @return true, если игрок в списке
+     */
+    public synchronized boolean contains(String playerName) {
+        return names.containsKey(normalize(playerName));
+    }
+
+    /**
+     * Проверяет наличие игрока по UUID или имени
+     *
+     * @param playerUuid UUID игрока
+     * @param playerName Имя игрока
+     * @return true, если игрок в списке
+     */
+    public synchronized boolean contains(UUID playerUuid, String playerName) {
+        return (playerUuid != null && uuids.containsKey(playerUuid)) || names.containsKey(normalize(playerName));
+    }
+
+    /**
+     * Добавляет игрока в список
+     *
+     * @param playerName Имя игрока
+     * @param playerUuid UUID игрока или null, если неизвестен
+     * @return true, если список изменился
+     */
+    public synchronized boolean add(String playerName, UUID playerUuid) {
+        String key = normalize(playerName);
+        if (names.containsKey(key)) {
+            // Имя уже в списке: дописываем UUID, если он стал известен
+            if (playerUuid != null && names.get(key) == null && !uuids.containsKey(playerUuid)) {
+                put(key, playerUuid);
+                return true;
+            }
+            return false;
+        }
+        if (playerUuid != null && uuids.containsKey(playerUuid)) {
+            return false;
+        }
+        put(key, playerUuid);
+        index = index.with(key);
+        return true;
+    }
+
+    /**
+     * Удаляет игрока из списка по имени
+     *
+     * @param playerName Имя игрока
+     * @return true, если игрок был в списке
+     */
+    public synchronized boolean remove(String playerName) {
+        String key = normalize(playerName);
+        if (!names.containsKey(key)) {
+            return false;
+        }
+        UUID playerUuid = names.remove(key);
+        if (playerUuid != null) {
+            uuids.remove(playerUuid);
+        }
+        index = index.without(key);
+        return true;
+    }
+
+    /**
+     * Находит имена из списка по началу имени без учета регистра.
+     * Не блокирует список: читается последний опубликованный индекс
+     *
+     * @param prefix Начало имени
+     * @return Имена в алфавитном порядке
+     */
+    public List<String> complete(String prefix) {
+        return index.complete(prefix);
+    }
+
+    /**
+     * @return Копия списка имен в порядке добавления
+     */
+    public synchronized List<String> getNames() {
+        return new ArrayList<>(names.keySet());
+    }
+
+    /**
+     * @return Снимок списка: имя -> UUID (или null)
+     */
+    public synchronized Map<String, UUID> snapshot() {
+        return new LinkedHashMap<>(names);
+    }
+
+    private void put(String key, UUID playerUuid) {
+        UUID previous = names.put(key, playerUuid);
+        if (previous != null) {
+            uuids.remove(previous);
+        }
+        if (playerUuid != null) {
+            uuids.put(playerUuid, key);
+        }
+    }
+}
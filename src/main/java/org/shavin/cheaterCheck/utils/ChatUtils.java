@@ -8,10 +8,10 @@ import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 
 import java.util.Collection;
-import java.util.regex.Pattern;
 
 public class ChatUtils {
-    private static final Pattern COLOR_PATTERN = Pattern.compile("&[0-9a-fA-Fk-oK-OrR]");
+    // Символы, допустимые после & в цветовом коде
+    private static final String COLOR_CODES = "0123456789abcdefklmnorABCDEFKLMNOR";
 
     /**
      * Преобразует строку с цветовыми кодами Minecraft в цветную строку
@@ -21,11 +21,26 @@ public class ChatUtils {
      */
     public static String colorize(String text) {
         if (text == null) return "";
-        return text.replaceAll("&([0-9a-fk-orA-FK-OR])", "§$1");
+        int index = text.indexOf('&');
+        if (index < 0) return text;
+
+        char[] chars = null;
+        for (int i = index; i < text.length() - 1; i++) {
+            if (text.charAt(i) == '&' && COLOR_CODES.indexOf(text.charAt(i + 1)) >= 0) {
+                if (chars == null) {
+                    chars = text.toCharArray();
+                }
+                chars[i] = '§';
+                i++;
+            }
+        }
+        return chars != null ? new String(chars) : text;
     }
 
     /**
-     * Преобразует строку с цветовыми кодами Minecraft в Adventure Component
+     * Преобразует строку с цветовыми кодами Minecraft в Adventure Component.
+     * Строка разбирается при каждом вызове: постоянные сообщения лучше отправлять
+     * через {@link MessageTemplate}, который собирает компонент один раз
      *
      * @param text Исходная строка
      * @return Adventure Component
@@ -59,22 +74,6 @@ public class ChatUtils {
         }
     }
 
-    /**
-     * Отправляет сообщение всем игрокам с определенным разрешением
-     *
-     * @param message Сообщение
-     * @param permission Разрешение
-     */
-    public static void broadcastToPermission(String message, String permission) {
-        if (message == null || message.isEmpty()) return;
-        
-        Bukkit.getOnlinePlayers().stream()
-            .filter(player -> player.hasPermission(permission))
-            .forEach(player -> sendMessage(player, message));
-        
-        sendMessage(Bukkit.getConsoleSender(), message);
-    }
-
     /**
      * Отправляет сообщение всем игрокам
      *
@@ -86,7 +85,9 @@ public class ChatUtils {
     }
 
     /**
-     * Заменяет плейсхолдеры в сообщении
+     * Заменяет плейсхолдеры в сообщении за один проход.
+     * Подставленные значения повторно не просматриваются.
+     * Для сообщений из конфигурации лучше использовать {@link MessageTemplate}
      *
      * @param message Сообщение
      * @param placeholders Плейсхолдеры
@@ -97,12 +98,29 @@ public class ChatUtils {
         if (placeholders.length % 2 != 0) {
             throw new IllegalArgumentException("Placeholders must be in pairs (key, value)");
         }
-        
-        String result = message;
-        for (int i = 0; i < placeholders.length; i += 2) {
-            result = result.replace(placeholders[i], placeholders[i + 1]);
+
+        StringBuilder result = null;
+        int last = 0;
+        int length = message.length();
+        for (int i = 0; i < length; i++) {
+            char c = message.charAt(i);
+            for (int p = 0; p < placeholders.length; p += 2) {
+                String key = placeholders[p];
+                if (!key.isEmpty() && key.charAt(0) == c && message.startsWith(key, i)) {
+                    if (result == null) {
+                        result = new StringBuilder(length + 16);
+                    }
+                    result.append(message, last, i).append(placeholders[p + 1]);
+                    i += key.length() - 1;
+                    last = i + 1;
+                    break;
+                }
+            }
+        }
+
+        if (result == null) {
+            return message;
         }
-        
-        return result;
+        return result.append(message, last, length).toString();
     }
 } 
\ No newline at end of file
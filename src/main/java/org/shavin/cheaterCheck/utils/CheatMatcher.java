@@ -0,0 +1,240 @@
+package org.shavin.cheaterCheck.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Нечеткий поиск названий читов с опечатками.
+ * Названия приводятся к ключу без регистра, пробелов и знаков препинания
+ * ("Meteor Client" и "meteor_client" - один ключ) и складываются в BK-дерево
+ * по расстоянию Левенштейна. Поиск обходит только ветви, которые могут содержать
+ * ключи в пределах допустимого расстояния, поэтому не перебирает все читы.
+ * Дерево неизменяемо и собирается вместе с таблицей читов при загрузке cheats.yml
+ */
+public final class CheatMatcher {
+    private static final CheatMatcher EMPTY = new CheatMatcher(null);
+
+    private final Node root;
+
+    private CheatMatcher(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Собирает дерево из названий читов
+     *
+     * @param names Названия читов
+     * @return Поисковик
+     */
+    public static CheatMatcher build(List<String> names) {
+        Node root = null;
+        for (String name : names) {
+            String key = normalize(name);
+            if (key.isEmpty()) {
+                continue;
+            }
+            if (root == null) {
+                root = new Node(key);
+                root.names.add(name);
+            } else {
+                root.insert(key, name);
+            }
+        }
+        return root == null ? EMPTY : new CheatMatcher(root);
+    }
+
+    /**
+     * Приводит название к ключу поиска: нижний регистр, только буквы и цифры
+     *
+     * @param name Название чита
+     * @return Ключ поиска
+     */
+    public static String normalize(String name) {
+        StringBuilder key = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                key.append(Character.toLowerCase(c));
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * Ищет ближайшие названия читов. Допустимое расстояние зависит от длины ввода:
+     * в коротких названиях одна опечатка меняет слишком большую долю символов
+     *
+     * @param input Введенное название
+     * @return Результат поиска
+     */
+    public Result match(String input) {
+        String key = normalize(input);
+        if (root == null || key.isEmpty()) {
+            return Result.NONE;
+        }
+
+        int limit = maxDistance(key.length());
+        int best = limit + 1;
+        List<String> candidates = new ArrayList<>(2);
+
+        Deque<Node> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            Node node = pending.pop();
+            int distance = distance(key, node.key);
+            if (distance < best) {
+                best = distance;
+                candidates.clear();
+                candidates.addAll(node.names);
+            } else if (distance == best) {
+                candidates.addAll(node.names);
+            }
+
+            // По неравенству треугольника ключи не дальше radius лежат только в ветвях [d - radius, d + radius]
+            int radius = Math.min(best, limit);
+            for (Map.Entry<Integer, Node> child : node.children.entrySet()) {
+                int edge = child.getKey();
+                if (edge >= distance - radius && edge <= distance + radius) {
+                    pending.push(child.getValue());
+                }
+            }
+        }
+
+        if (best > limit) {
+            return Result.NONE;
+        }
+        return new Result(best, Collections.unmodifiableList(candidates));
+    }
+
+    private static int maxDistance(int length) {
+        if (length <= 2) {
+            return 0;
+        }
+        if (length <= 5) {
+            return 1;
+        }
+        return length <= 9 ? 2 : 3;
+    }
+
+    /**
+     * Расстояние Левенштейна. Считается полностью без отсечения:
+     * отбор ветвей BK-дерева верен только для точного расстояния
+     */
+    private static int distance(String a, String b) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = ca == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    /**
+     * Узел BK-дерева: ключ, названия читов с этим ключом и потомки по расстоянию до ключа
+     */
+    private static final class Node {
+        private final String key;
+        private final List<String> names = new ArrayList<>(1);
+        private final Map<Integer, Node> children = new HashMap<>();
+
+        private Node(String key) {
+            this.key = key;
+        }
+
+        private void insert(String key, String name) {
+            Node node = this;
+            while (true) {
+                int distance = distance(key, node.key);
+                if (distance == 0) {
+                    node.names.add(name);
+                    return;
+                }
+                Node child = node.children.get(distance);
+                if (child == null) {
+                    child = new Node(key);
+                    child.names.add(name);
+                    node.children.put(distance, child);
+                    return;
+                }
+                node = child;
+            }
+        }
+    }
+
+    /**
+     * Результат нечеткого поиска
+     */
+    public static final class Result {
+        private static final Result NONE = new Result(-1, Collections.emptyList());
+
+        private final int distance;
+        private final List<String> candidates;
+
+        private Result(int distance, List<String> candidates) {
+            this.distance = distance;
+            this.candidates = candidates;
+        }
+
+        /**
+         * Результат точного совпадения
+         *
+         * @param name Название чита
+         * @return Результат с единственным кандидатом на расстоянии 0
+         */
+        public static Result exact(String name) {
+            return new Result(0, Collections.singletonList(name));
+        }
+
+        /**
+         * @return Единственное ближайшее название или null, если совпадений нет или их несколько
+         */
+        public String getBest() {
+            return candidates.size() == 1 ? candidates.get(0) : null;
+        }
+
+        /**
+         * @return Все названия на минимальном расстоянии
+         */
+        public List<String> getCandidates() {
+            return candidates;
+        }
+
+        /**
+         * @return Расстояние до ближайших названий или -1, если совпадений нет
+         */
+        public int getDistance() {
+            return distance;
+        }
+
+        /**
+         * @return true, если найдено хотя бы одно название
+         */
+        public boolean isFound() {
+            return !candidates.isEmpty();
+        }
+
+        /**
+         * @return true, если несколько названий одинаково близки
+         */
+        public boolean isAmbiguous() {
+            return candidates.size() > 1;
+        }
+    }
+}
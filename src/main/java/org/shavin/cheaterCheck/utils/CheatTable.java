@@ -0,0 +1,197 @@
+package org.shavin.cheaterCheck.utils;
+
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Неизменяемая таблица читов, собранная из cheats.yml при загрузке.
+ * Ключи приводятся к нижнему регистру, шаблоны команд и сообщений компилируются заранее,
+ * поэтому поиск чита - одно обращение к хэш-таблице без обхода дерева конфигурации.
+ * При перезагрузке собирается новая таблица и подменяется ссылка на нее
+ */
+public final class CheatTable {
+    private static final CheatTable EMPTY = new CheatTable(Collections.emptyMap(), Collections.emptyList());
+
+    private final Map<String, Cheat> cheats;
+    private final List<String> names;
+    private final PrefixIndex nameIndex;
+    private final CheatMatcher matcher;
+
+    private CheatTable(Map<String, Cheat> cheats, List<String> names) {
+        this.cheats = cheats;
+        this.names = names;
+        this.nameIndex = PrefixIndex.of(names);
+        this.matcher = CheatMatcher.build(names);
+    }
+
+    /**
+     * @return Пустая таблица
+     */
+    public static CheatTable empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Собирает таблицу из секции cheats. Чит задается либо числом дней бана
+     * (-1 - навсегда), либо секцией с ban_command, ban_message, ban_time и auto_ban
+     *
+     * @param section Секция cheats или null
+     * @return Таблица читов
+     */
+    public static CheatTable compile(ConfigurationSection section) {
+        if (section == null) {
+            return EMPTY;
+        }
+
+        Map<String, Cheat> cheats = new HashMap<>();
+        List<String> names = new ArrayList<>();
+        for (String name : section.getKeys(false)) {
+            Cheat cheat = section.isConfigurationSection(name)
+                    ? Cheat.fromSection(name, section.getConfigurationSection(name))
+                    : Cheat.fromDuration(name, section.getString(name, "30"));
+
+            String key = normalize(name);
+            if (cheats.putIfAbsent(key, cheat) != null) {
+                // Имена, отличающиеся только регистром, считаются одним читом: первое определение побеждает
+                continue;
+            }
+            names.add(name);
+            // Точное имя из конфигурации находится без приведения регистра
+            cheats.putIfAbsent(name, cheat);
+        }
+        return new CheatTable(cheats, Collections.unmodifiableList(names));
+    }
+
+    /**
+     * Приводит название чита к ключу таблицы
+     *
+     * @param name Название чита
+     * @return Ключ в нижнем регистре
+     */
+    public static String normalize(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Ищет чит без учета регистра
+     *
+     * @param name Название чита
+     * @return Чит или null, если он не определен
+     */
+    public Cheat get(String name) {
+        if (name == null) {
+            return null;
+        }
+        Cheat cheat = cheats.get(name);
+        return cheat != null ? cheat : cheats.get(normalize(name));
+    }
+
+    /**
+     * @return Названия читов в порядке файла (неизменяемый список)
+     */
+    public List<String> getNames() {
+        return names;
+    }
+
+    /**
+     * @return Индекс названий читов для автодополнения
+     */
+    public PrefixIndex getNameIndex() {
+        return nameIndex;
+    }
+
+    /**
+     * Ищет чит с учетом опечаток, пробелов и знаков препинания
+     *
+     * @param name Введенное название
+     * @return Ближайшие названия читов из cheats.yml
+     */
+    public CheatMatcher.Result match(String name) {
+        return matcher.match(name);
+    }
+
+    /**
+     * @return Количество читов
+     */
+    public int size() {
+        return names.size();
+    }
+
+    /**
+     * Скомпилированное описание одного чита
+     */
+    public static final class Cheat {
+        private static final String DEFAULT_BAN_MESSAGE =
+                "&c&lИгрок &e&l{player} &c&lзабанен за использование &e&l{cheat}&c&l!";
+
+        private final String name;
+        private final MessageTemplate banCommand;
+        private final MessageTemplate banMessage;
+        private final String duration;
+        private final boolean autoBan;
+
+        private Cheat(String name, String banCommand, String banMessage, String duration, boolean autoBan) {
+            this.name = name;
+            this.banCommand = MessageTemplate.compilePlain(banCommand);
+            this.banMessage = MessageTemplate.compilePlain(banMessage);
+            this.duration = duration;
+            this.autoBan = autoBan;
+        }
+
+        private static Cheat fromDuration(String name, String duration) {
+            String banCommand = duration.equals("-1")
+                    ? "ban {player} Использование чита: {cheat}"
+                    : "tempban {player} " + duration + "d Использование чита: {cheat}";
+            return new Cheat(name, banCommand, DEFAULT_BAN_MESSAGE, duration, true);
+        }
+
+        private static Cheat fromSection(String name, ConfigurationSection section) {
+            return new Cheat(name,
+                    section.getString("ban_command", "ban {player} Использование чита: {cheat}"),
+                    section.getString("ban_message", DEFAULT_BAN_MESSAGE),
+                    section.getString("ban_time"),
+                    section.getBoolean("auto_ban", true));
+        }
+
+        /**
+         * @return Название чита, как оно записано в cheats.yml
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return Шаблон команды бана с плейсхолдерами {player} и {cheat}
+         */
+        public MessageTemplate getBanCommand() {
+            return banCommand;
+        }
+
+        /**
+         * @return Шаблон сообщения о бане с плейсхолдерами {player} и {cheat}
+         */
+        public MessageTemplate getBanMessage() {
+            return banMessage;
+        }
+
+        /**
+         * @return Длительность бана из конфигурации или null, если не указана
+         */
+        public String getDuration() {
+            return duration;
+        }
+
+        /**
+         * @return true, если за чит нужно банить автоматически
+         */
+        public boolean isAutoBan() {
+            return autoBan;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package org.shavin.cheaterCheck.utils;
 
 import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.shavin.cheaterCheck.CheaterCheck;
@@ -9,13 +10,19 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 public class CheatsConfig {
+    private static final MessageTemplate DEFAULT_BAN_COMMAND =
+            MessageTemplate.compilePlain("ban {player} Использование чита: {cheat}");
+    private static final MessageTemplate DEFAULT_BAN_MESSAGE =
+            MessageTemplate.compilePlain("&c&lИгрок &e&l{player} &c&lзабанен за использование &e&l{cheat}&c&l!");
+
     private final CheaterCheck plugin;
     private File cheatsFile;
+    // Используется только при создании файла
     private FileConfiguration cheatsConfig;
+    // Собранная таблица читов, при перезагрузке ссылка подменяется целиком
+    private volatile CheatTable cheatTable = CheatTable.empty();
 
     public CheatsConfig(CheaterCheck plugin) {
         this.plugin = plugin;
@@ -37,6 +44,7 @@ public class CheatsConfig {
         }
         
         saveCheatsConfig();
+        publish(cheatsConfig);
     }
 
     /**
@@ -99,10 +107,59 @@ public class CheatsConfig {
     }
 
     /**
-     * Перезагружает конфигурацию читов
+     * Перезагружает конфигурацию читов. Файл читается и разбирается в потоке наблюдателя
      */
     public void reloadConfig() {
-        cheatsConfig = YamlConfiguration.loadConfiguration(cheatsFile);
+        ConfigWatcher watcher = plugin.getConfigWatcher();
+        if (watcher == null) {
+            publish(YamlConfiguration.loadConfiguration(cheatsFile));
+            return;
+        }
+        watcher.requestReload("cheats.yml");
+    }
+
+    /**
+     * Регистрирует обработчик cheats.yml в наблюдателе: правки применяются без /check reload
+     *
+     * @param watcher Наблюдатель за папкой плагина
+     */
+    public void registerReloaders(ConfigWatcher watcher) {
+        watcher.register("cheats.yml", this::applyCheatsFile);
+    }
+
+    /**
+     * Разбирает и проверяет cheats.yml. Вызывается в потоке наблюдателя
+     *
+     * @param content Содержимое файла
+     * @throws InvalidConfigurationException Если файл некорректен
+     */
+    private void applyCheatsFile(String content) throws InvalidConfigurationException {
+        YamlConfiguration config = new YamlConfiguration();
+        config.loadFromString(content);
+        if (!config.isConfigurationSection("cheats")) {
+            throw new InvalidConfigurationException("Отсутствует секция cheats");
+        }
+        cheatTable = CheatTable.compile(config.getConfigurationSection("cheats"));
+    }
+
+    /**
+     * Компилирует таблицу читов из конфигурации и публикует ее
+     */
+    private void publish(FileConfiguration config) {
+        ConfigurationSection cheatsSection = config.getConfigurationSection("cheats");
+        if (cheatsSection == null) {
+            plugin.getLogger().warning("Секция 'cheats' не найдена в файле cheats.yml");
+        }
+        cheatTable = CheatTable.compile(cheatsSection);
+    }
+
+    /**
+     * Получает текущую таблицу читов
+     *
+     * @return Неизменяемая таблица читов
+     */
+    public CheatTable getCheatTable() {
+        return cheatTable;
     }
 
     /**
@@ -112,11 +169,23 @@ public class CheatsConfig {
      * @return true, если чит определен
      */
     public boolean isCheatDefined(String cheatName) {
-        ConfigurationSection cheatsSection = cheatsConfig.getConfigurationSection("cheats");
-        if (cheatsSection == null) {
-            return false;
+        return cheatTable.get(cheatName) != null;
+    }
+
+    /**
+     * Определяет чит по введенному названию: точное совпадение без учета регистра,
+     * иначе ближайшее название с учетом опечаток
+     *
+     * @param cheatName Введенное название
+     * @return Результат поиска (при точном совпадении - единственный кандидат с расстоянием 0)
+     */
+    public CheatMatcher.Result resolveCheat(String cheatName) {
+        CheatTable table = cheatTable;
+        CheatTable.Cheat cheat = table.get(cheatName);
+        if (cheat != null) {
+            return CheatMatcher.Result.exact(cheat.getName());
         }
-        return cheatsSection.contains(cheatName.toLowerCase());
+        return table.match(cheatName);
     }
 
     /**
@@ -127,36 +196,9 @@ public class CheatsConfig {
      * @return Команда бана с заменой плейсхолдеров
      */
     public String getBanCommand(String playerName, String cheatName) {
-        String cheatKey = cheatName.toLowerCase();
-        String defaultCommand = "ban {player} Использование чита: {cheat}";
-        
-        if (!isCheatDefined(cheatKey)) {
-            return ChatUtils.replacePlaceholders(defaultCommand, 
-                    "{player}", playerName, 
-                    "{cheat}", cheatName);
-        }
-        
-        ConfigurationSection cheatsSection = cheatsConfig.getConfigurationSection("cheats");
-        String banCommand;
-        
-        // Проверяем, есть ли секция для чита или это просто строка
-        if (cheatsSection.isConfigurationSection(cheatKey)) {
-            ConfigurationSection cheatSection = cheatsSection.getConfigurationSection(cheatKey);
-            banCommand = cheatSection.getString("ban_command", defaultCommand);
-        } else {
-            // Если просто строка, используем значение как duration для стандартной команды
-            String duration = cheatsSection.getString(cheatKey, "30");
-            // Для постоянного бана (-1)
-            if (duration.equals("-1")) {
-                banCommand = "ban {player} Использование чита: {cheat}";
-            } else {
-                banCommand = "tempban {player} " + duration + "d Использование чита: {cheat}";
-            }
-        }
-        
-        return ChatUtils.replacePlaceholders(banCommand, 
-                "{player}", playerName, 
-                "{cheat}", cheatName);
+        CheatTable.Cheat cheat = cheatTable.get(cheatName);
+        MessageTemplate banCommand = cheat != null ? cheat.getBanCommand() : DEFAULT_BAN_COMMAND;
+        return banCommand.render("{player}", playerName, "{cheat}", cheatName);
     }
 
     /**
@@ -167,30 +209,9 @@ public class CheatsConfig {
      * @return Сообщение о бане с заменой плейсхолдеров
      */
     public String getBanMessage(String playerName, String cheatName) {
-        String cheatKey = cheatName.toLowerCase();
-        String defaultMessage = "&c&lИгрок &e&l{player} &c&lзабанен за использование &e&l{cheat}&c&l!";
-        
-        if (!isCheatDefined(cheatKey)) {
-            return ChatUtils.replacePlaceholders(defaultMessage, 
-                    "{player}", playerName, 
-                    "{cheat}", cheatName);
-        }
-        
-        ConfigurationSection cheatsSection = cheatsConfig.getConfigurationSection("cheats");
-        String banMessage;
-        
-        // Проверяем, есть ли секция для чита или это просто строка
-        if (cheatsSection.isConfigurationSection(cheatKey)) {
-            ConfigurationSection cheatSection = cheatsSection.getConfigurationSection(cheatKey);
-            banMessage = cheatSection.getString("ban_message", defaultMessage);
-        } else {
-            // Если просто строка, используем стандартное сообщение
-            banMessage = defaultMessage;
-        }
-        
-        return ChatUtils.replacePlaceholders(banMessage, 
-                "{player}", playerName, 
-                "{cheat}", cheatName);
+        CheatTable.Cheat cheat = cheatTable.get(cheatName);
+        MessageTemplate banMessage = cheat != null ? cheat.getBanMessage() : DEFAULT_BAN_MESSAGE;
+        return banMessage.render("{player}", playerName, "{cheat}", cheatName);
     }
 
     /**
@@ -200,37 +221,17 @@ public class CheatsConfig {
      * @return true, если автобан включен
      */
     public boolean isAutoBanEnabled(String cheatName) {
-        String cheatKey = cheatName.toLowerCase();
-        
-        if (!isCheatDefined(cheatKey)) {
-            return false;
-        }
-        
-        ConfigurationSection cheatsSection = cheatsConfig.getConfigurationSection("cheats");
-        
-        // Проверяем, есть ли секция для чита или это просто строка
-        if (cheatsSection.isConfigurationSection(cheatKey)) {
-            ConfigurationSection cheatSection = cheatsSection.getConfigurationSection(cheatKey);
-            return cheatSection.getBoolean("auto_ban", true);
-        } else {
-            // Если просто строка, то автобан включен по умолчанию
-            return true;
-        }
+        CheatTable.Cheat cheat = cheatTable.get(cheatName);
+        return cheat != null && cheat.isAutoBan();
     }
 
     /**
      * Получает все определенные читы
      *
-     * @return Список названий читов
+     * @return Неизменяемый список названий читов
      */
     public List<String> getDefinedCheats() {
-        ConfigurationSection cheatsSection = cheatsConfig.getConfigurationSection("cheats");
-        if (cheatsSection == null) {
-            plugin.getLogger().warning("Секция 'cheats' не найдена в файле cheats.yml");
-            return new ArrayList<>();
-        }
-        Set<String> keys = cheatsSection.getKeys(false);
-        return new ArrayList<>(keys);
+        return cheatTable.getNames();
     }
 
     /**
@@ -241,11 +242,15 @@ public class CheatsConfig {
      * @return Массив предложений
      */
     public String[] getSuggestions(String prefix, int limit) {
-        List<String> suggestions = getDefinedCheats().stream()
-                .filter(cheat -> cheat.toLowerCase().startsWith(prefix.toLowerCase()))
-                .limit(limit)
-                .collect(Collectors.toList());
-        
+        List<String> suggestions = new ArrayList<>();
+        for (String cheat : cheatTable.getNames()) {
+            if (suggestions.size() >= limit) {
+                break;
+            }
+            if (cheat.regionMatches(true, 0, prefix, 0, prefix.length())) {
+                suggestions.add(cheat);
+            }
+        }
         return suggestions.toArray(new String[0]);
     }
 } 
\ No newline at end of file
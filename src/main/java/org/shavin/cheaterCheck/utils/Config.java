@@ -8,10 +8,15 @@ import org.shavin.cheaterCheck.CheaterCheck;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class Config {
     private final CheaterCheck plugin;
     private final FileConfiguration config;
+    // Скомпилированные сообщения по пути в разделе messages.
+    // Config пересоздается при /check reload, поэтому кэш сбрасывается вместе с ним
+    private final Map<String, CachedMessage> messageCache = new ConcurrentHashMap<>();
 
     public Config(CheaterCheck plugin) {
         this.plugin = plugin;
@@ -19,27 +24,64 @@ public class Config {
     }
 
     public String getPrefix() {
-        return getMessage("prefix", "&8[&c&lCheaterCheck&8] &r");
+        return getPrefixTemplate().getText();
+    }
+
+    public MessageTemplate getPrefixTemplate() {
+        return getMessageTemplate("prefix", "&8[&c&lCheaterCheck&8] &r");
     }
 
     public String getMessage(String path, String defaultValue) {
-        return ChatUtils.colorize(config.getString("messages." + path, defaultValue));
+        return getMessageTemplate(path, defaultValue).getText();
+    }
+
+    /**
+     * Получает скомпилированный шаблон сообщения. Шаблон компилируется при первом
+     * обращении и затем берется из кэша до перезагрузки конфигурации
+     *
+     * @param path Путь в разделе messages
+     * @param defaultValue Сообщение по умолчанию, если путь не задан
+     * @return Шаблон сообщения
+     */
+    public MessageTemplate getMessageTemplate(String path, String defaultValue) {
+        return messageCache.computeIfAbsent(path, this::loadMessage).get(defaultValue);
+    }
+
+    private CachedMessage loadMessage(String path) {
+        String raw = config.getString("messages." + path, null);
+        return new CachedMessage(raw != null ? MessageTemplate.compile(raw) : null);
     }
 
     public String getFreezeMessage(String path, String defaultValue) {
         return getMessage("freeze." + path, defaultValue);
     }
 
+    public MessageTemplate getFreezeTemplate(String path, String defaultValue) {
+        return getMessageTemplate("freeze." + path, defaultValue);
+    }
+
     public String getScreenshareMessage(String path, String defaultValue) {
         return getMessage("screenshare." + path, defaultValue);
     }
 
+    public MessageTemplate getScreenshareTemplate(String path, String defaultValue) {
+        return getMessageTemplate("screenshare." + path, defaultValue);
+    }
+
     public String getCheckMessage(String path, String defaultValue) {
         return getMessage("check." + path, defaultValue);
     }
 
+    public MessageTemplate getCheckTemplate(String path, String defaultValue) {
+        return getMessageTemplate("check." + path, defaultValue);
+    }
+
     public String getErrorMessage(String key, String defaultMessage) {
-        return ChatUtils.colorize(config.getString("messages.error." + key, defaultMessage));
+        return getMessage("error." + key, defaultMessage);
+    }
+
+    public MessageTemplate getErrorTemplate(String key, String defaultMessage) {
+        return getMessageTemplate("error." + key, defaultMessage);
     }
 
     /**
@@ -74,11 +116,40 @@ public class Config {
     }
 
     public boolean useParticles() {
-        return config.getBoolean("freeze.particles", true);
+        return config.getBoolean("freeze.particles.enabled", true);
     }
 
     public String getParticleType() {
-        return config.getString("freeze.particle-type", "BARRIER");
+        // Старые конфиги задавали тип ключом freeze.particle-type
+        return config.getString("freeze.particles.type", config.getString("freeze.particle-type", "SMOKE"));
+    }
+
+    public int getParticlePoints() {
+        return config.getInt("freeze.particles.points", 16);
+    }
+
+    public double getParticleRadius() {
+        return config.getDouble("freeze.particles.radius", 0.9);
+    }
+
+    public double getParticleHeight() {
+        return config.getDouble("freeze.particles.height", 1.0);
+    }
+
+    public int getParticleFrames() {
+        return config.getInt("freeze.particles.frames", 1);
+    }
+
+    public double getParticleRotation() {
+        return config.getDouble("freeze.particles.rotation", 0.0);
+    }
+
+    public double getParticlePulse() {
+        return config.getDouble("freeze.particles.pulse", 0.0);
+    }
+
+    public double getParticleViewDistance() {
+        return config.getDouble("freeze.particles.view-distance", 48.0);
     }
 
     public boolean blockCommands() {
@@ -181,7 +252,11 @@ public class Config {
      * @return Текст напоминания с цветовыми кодами
      */
     public String getSuspectReminderMessage() {
-        return getCheckMessage("suspect-reminder", 
+        return getSuspectReminderTemplate().getText();
+    }
+
+    public MessageTemplate getSuspectReminderTemplate() {
+        return getCheckTemplate("suspect-reminder",
                 "&c&lВНИМАНИЕ! &eВы находитесь на проверке! Пожалуйста, выполняйте указания администратора. &c&lНе выходите с сервера!");
     }
 
@@ -229,7 +304,11 @@ public class Config {
      * @return Текст заголовка с цветовыми кодами
      */
     public String getTitleMain() {
-        return getCheckMessage("title.main", "&c&lВы вызваны на проверку");
+        return getTitleMainTemplate().getText();
+    }
+
+    public MessageTemplate getTitleMainTemplate() {
+        return getCheckTemplate("title.main", "&c&lВы вызваны на проверку");
     }
 
     /**
@@ -238,7 +317,11 @@ public class Config {
      * @return Текст подзаголовка с цветовыми кодами
      */
     public String getTitleSubtitle() {
-        return getCheckMessage("title.subtitle", "&7Выполняйте действия проверяющего");
+        return getTitleSubtitleTemplate().getText();
+    }
+
+    public MessageTemplate getTitleSubtitleTemplate() {
+        return getCheckTemplate("title.subtitle", "&7Выполняйте действия проверяющего");
     }
 
     /**
@@ -313,13 +396,31 @@ public class Config {
         return config.getInt("check.afk-check.timeout", 60);
     }
 
+    /**
+     * Проверяет, включено ли подробное логирование AFK проверок
+     *
+     * @return true, если подробное логирование включено
+     */
+    public boolean isAfkDebugEnabled() {
+        return config.getBoolean("check.afk-check.debug", false);
+    }
+
     /**
      * Получает сообщение при попытке проверки AFK игрока
      *
      * @return Сообщение
      */
     public String getAfkMessage() {
-        return getMessage("check.afk-check.message", 
+        return getAfkTemplate().getText();
+    }
+
+    /**
+     * Получает шаблон сообщения при попытке проверки AFK игрока
+     *
+     * @return Шаблон с плейсхолдером {player}
+     */
+    public MessageTemplate getAfkTemplate() {
+        return getMessageTemplate("check.afk-check.message",
                 "&cИгрок &e{player} &cне может быть проверен, так как находится в AFK режиме!");
     }
 
@@ -331,4 +432,22 @@ public class Config {
     public boolean isTeleportToGroundEnabled() {
         return config.getBoolean("freeze.teleport-to-ground", true);
     }
+
+    private static final class CachedMessage {
+        // Сообщение из конфигурации или null, если путь не задан
+        private final MessageTemplate template;
+        // Если путь не задан, один и тот же путь может запрашиваться с разными значениями по умолчанию
+        private final Map<String, MessageTemplate> defaults = new ConcurrentHashMap<>();
+
+        private CachedMessage(MessageTemplate template) {
+            this.template = template;
+        }
+
+        private MessageTemplate get(String defaultValue) {
+            if (template != null) {
+                return template;
+            }
+            return defaults.computeIfAbsent(defaultValue != null ? defaultValue : "", MessageTemplate::compile);
+        }
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,259 @@
+package org.shavin.cheaterCheck.utils;
+
+import org.shavin.cheaterCheck.CheaterCheck;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Следит за файлами в папке плагина и перечитывает измененные файлы в отдельном потоке.
+ * Обработчик файла разбирает и проверяет содержимое, после чего одной заменой ссылки
+ * публикует новый снимок. Если обработчик отклонил файл, остается предыдущий снимок,
+ * поэтому основной поток никогда не ждет диск или разбор YAML и не видит ошибочных правок
+ */
+public final class ConfigWatcher {
+    // Редакторы часто записывают файл в несколько приемов: ждем, пока изменения утихнут
+    private static final long QUIET_PERIOD_MILLIS = 250L;
+
+    /**
+     * Обработчик содержимого файла
+     */
+    @FunctionalInterface
+    public interface FileHandler {
+        /**
+         * Разбирает и применяет содержимое файла
+         *
+         * @param content Содержимое файла
+         * @throws Exception Если файл некорректен и не должен быть применен
+         */
+        void load(String content) throws Exception;
+    }
+
+    private final CheaterCheck plugin;
+    private final Path folder;
+    private final Map<String, FileHandler> handlers = new ConcurrentHashMap<>();
+    // Последнее примененное или записанное самим плагином содержимое файла
+    private final Map<String, String> lastContent = new ConcurrentHashMap<>();
+    // Задачи, выполняемые в потоке наблюдателя по порядку (перезагрузка по команде и т.п.)
+    private final BlockingQueue<Runnable> tasks = new LinkedBlockingQueue<>();
+    private final Thread thread;
+    private volatile boolean running;
+    private volatile WatchService watchService;
+
+    public ConfigWatcher(CheaterCheck plugin) {
+        this.plugin = plugin;
+        this.folder = plugin.getDataFolder().toPath();
+        this.thread = new Thread(this::run, "CheaterCheck-FileWatcher");
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Регистрирует обработчик файла из папки плагина
+     *
+     * @param fileName Имя файла
+     * @param handler Обработчик
+     */
+    public void register(String fileName, FileHandler handler) {
+        handlers.put(fileName, handler);
+    }
+
+    /**
+     * Запускает наблюдение за папкой плагина
+     */
+    public void start() {
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            folder.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            // Перезагрузка по команде продолжит работать, но уже без отслеживания правок
+            plugin.getLogger().warning("Не удалось запустить отслеживание изменений файлов: " + e.getMessage());
+            closeWatchService();
+        }
+        running = true;
+        thread.start();
+    }
+
+    /**
+     * Останавливает наблюдение
+     */
+    public void close() {
+        running = false;
+        closeWatchService();
+        thread.interrupt();
+        try {
+            thread.join(1000L);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Перечитывает файл в потоке наблюдателя, даже если его содержимое не изменилось
+     *
+     * @param fileName Имя файла
+     */
+    public void requestReload(String fileName) {
+        execute(() -> load(fileName, true));
+    }
+
+    /**
+     * Выполняет задачу в потоке наблюдателя в порядке очереди с перезагрузками файлов
+     *
+     * @param task Задача
+     */
+    public void execute(Runnable task) {
+        if (running) {
+            tasks.offer(task);
+        } else {
+            task.run();
+        }
+    }
+
+    /**
+     * Запоминает содержимое, записанное самим плагином, чтобы не перечитывать
+     * файл из-за собственной записи
+     *
+     * @param fileName Имя файла
+     * @param content Записанное содержимое
+     */
+    public void markWritten(String fileName, String content) {
+        lastContent.put(fileName, content);
+    }
+
+    private void run() {
+        // Имя файла -> время последнего события
+        Map<String, Long> changed = new HashMap<>();
+        while (running) {
+            try {
+                pollEvents(changed);
+
+                Runnable task;
+                while ((task = tasks.poll()) != null) {
+                    runSafely(task);
+                }
+
+                long now = System.currentTimeMillis();
+                Iterator<Map.Entry<String, Long>> iterator = changed.entrySet().iterator();
+                while (iterator.hasNext()) {
+                    Map.Entry<String, Long> entry = iterator.next();
+                    if (now - entry.getValue() >= QUIET_PERIOD_MILLIS) {
+                        iterator.remove();
+                        load(entry.getKey(), false);
+                    }
+                }
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                if (!running) {
+                    break;
+                }
+            } catch (RuntimeException e) {
+                plugin.getLogger().severe("Ошибка отслеживания файлов: " + e.getMessage());
+            }
+        }
+
+        // Задачи, поставленные до остановки, выполняются перед выходом
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            runSafely(task);
+        }
+    }
+
+    private void pollEvents(Map<String, Long> changed) throws InterruptedException {
+        WatchService service = watchService;
+        if (service == null) {
+            Runnable task = tasks.poll(QUIET_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+            if (task != null) {
+                runSafely(task);
+            }
+            return;
+        }
+
+        WatchKey key = service.poll(QUIET_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+        if (key == null) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                // События потеряны: проверяем все файлы, неизмененные отсеются по содержимому
+                for (String fileName : handlers.keySet()) {
+                    changed.put(fileName, now);
+                }
+                continue;
+            }
+            String fileName = String.valueOf(event.context());
+            if (handlers.containsKey(fileName)) {
+                changed.put(fileName, now);
+            }
+        }
+        key.reset();
+    }
+
+    private void load(String fileName, boolean force) {
+        FileHandler handler = handlers.get(fileName);
+        if (handler == null) {
+            return;
+        }
+
+        String content;
+        try {
+            content = new String(Files.readAllBytes(folder.resolve(fileName)), StandardCharsets.UTF_8);
+        } catch (NoSuchFileException e) {
+            // Файл удален или заменяется: оставляем предыдущий снимок
+            return;
+        } catch (IOException e) {
+            plugin.getLogger().warning("Не удалось прочитать файл " + fileName + ": " + e.getMessage());
+            return;
+        }
+
+        if (!force && content.equals(lastContent.get(fileName))) {
+            return;
+        }
+
+        try {
+            handler.load(content);
+            lastContent.put(fileName, content);
+            if (!force) {
+                plugin.getLogger().info("Файл " + fileName + " изменен и перезагружен");
+            }
+        } catch (Exception e) {
+            plugin.getLogger().warning("Файл " + fileName + " содержит ошибки, используется предыдущая версия: "
+                    + e.getMessage());
+        }
+    }
+
+    private void runSafely(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            plugin.getLogger().severe("Ошибка фоновой задачи перезагрузки: " + e.getMessage());
+        }
+    }
+
+    private void closeWatchService() {
+        WatchService service = watchService;
+        watchService = null;
+        if (service != null) {
+            try {
+                service.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package org.shavin.cheaterCheck.utils;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Индексированная min-куча дедлайнов, упорядоченная по времени истечения.
+ * Позволяет за O(log n) добавить, переназначить или удалить дедлайн игрока
+ * и за O(1) узнать ближайший истекающий дедлайн.
+ * Не потокобезопасна: используется только из основного потока сервера.
+ */
+public class DeadlineQueue {
+    private UUID[] keys;
+    private long[] deadlines;
+    private final Map<UUID, Integer> positions;
+    private int size;
+
+    public DeadlineQueue() {
+        this(64);
+    }
+
+    public DeadlineQueue(int initialCapacity) {
+        int capacity = Math.max(4, initialCapacity);
+        this.keys = new UUID[capacity];
+        this.deadlines = new long[capacity];
+        this.positions = new HashMap<>(capacity * 2);
+    }
+
+    /**
+     * Устанавливает дедлайн для ключа, добавляя его в очередь при необходимости
+     *
+     * @param key Ключ (UUID игрока)
+     * @param deadline Время истечения в миллисекундах
+     */
+    public void schedule(UUID key, long deadline) {
+        Integer position = positions.get(key);
+        if (position != null) {
+            int index = position;
+            long previous = deadlines[index];
+            deadlines[index] = deadline;
+            if (deadline < previous) {
+                siftUp(index);
+            } else if (deadline > previous) {
+                siftDown(index);
+            }
+            return;
+        }
+
+        if (size == keys.length) {
+            int newCapacity = keys.length << 1;
+            keys = Arrays.copyOf(keys, newCapacity);
+            deadlines = Arrays.copyOf(deadlines, newCapacity);
+        }
+
+        keys[size] = key;
+        deadlines[size] = deadline;
+        positions.put(key, size);
+        siftUp(size++);
+    }
+
+    /**
+     * Удаляет ключ из очереди
+     *
+     * @param key Ключ
+     * @return true, если ключ был в очереди
+     */
+    public boolean remove(UUID key) {
+        Integer position = positions.remove(key);
+        if (position == null) {
+            return false;
+        }
+
+        int index = position;
+        int last = --size;
+        if (index != last) {
+            move(last, index);
+            keys[last] = null;
+            siftDown(index);
+            siftUp(index);
+        } else {
+            keys[last] = null;
+        }
+        return true;
+    }
+
+    /**
+     * Извлекает ключ с ближайшим дедлайном
+     *
+     * @return Ключ или null, если очередь пуста
+     */
+    public UUID poll() {
+        if (size == 0) {
+            return null;
+        }
+        UUID key = keys[0];
+        remove(key);
+        return key;
+    }
+
+    /**
+     * @return Ключ с ближайшим дедлайном или null, если очередь пуста
+     */
+    public UUID peekKey() {
+        return size == 0 ? null : keys[0];
+    }
+
+    /**
+     * @return Ближайший дедлайн или Long.MAX_VALUE, если очередь пуста
+     */
+    public long peekDeadline() {
+        return size == 0 ? Long.MAX_VALUE : deadlines[0];
+    }
+
+    public boolean contains(UUID key) {
+        return positions.containsKey(key);
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0, size, null);
+        positions.clear();
+        size = 0;
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (deadlines[parent] <= deadlines[index]) {
+                break;
+            }
+            swap(index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        while (true) {
+            int left = (index << 1) + 1;
+            if (left >= size) {
+                break;
+            }
+            int right = left + 1;
+            int smallest = right < size && deadlines[right] < deadlines[left] ? right : left;
+            if (deadlines[index] <= deadlines[smallest]) {
+                break;
+            }
+            swap(index, smallest);
+            index = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        UUID key = keys[a];
+        long deadline = deadlines[a];
+        keys[a] = keys[b];
+        deadlines[a] = deadlines[b];
+        keys[b] = key;
+        deadlines[b] = deadline;
+        positions.put(keys[a], a);
+        positions.put(keys[b], b);
+    }
+
+    private void move(int from, int to) {
+        keys[to] = keys[from];
+        deadlines[to] = deadlines[from];
+        positions.put(keys[to], to);
+    }
+}
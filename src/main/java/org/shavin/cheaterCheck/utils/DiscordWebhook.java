@@ -1,19 +1,16 @@
 package org.shavin.cheaterCheck.utils;
 
 import org.shavin.cheaterCheck.CheaterCheck;
+import org.shavin.cheaterCheck.managers.FreezeContext;
 
-import javax.net.ssl.HttpsURLConnection;
 import java.awt.Color;
 import java.io.IOException;
-import java.io.OutputStream;
-import java.lang.reflect.Array;
 import java.net.URL;
 import java.time.Instant;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Класс для отправки логов и уведомлений в Discord через вебхуки
@@ -95,22 +92,102 @@ public class DiscordWebhook {
     }
 
     /**
-     * Отправляет вебхук в Discord асинхронно
+     * @return URL вебхука
+     */
+    public String getUrl() {
+        return url.toString();
+    }
+
+    /**
+     * @return Основной контент сообщения
+     */
+    public String getContent() {
+        return content;
+    }
+
+    /**
+     * @return Используется ли Text-to-Speech
+     */
+    public boolean isTts() {
+        return tts;
+    }
+
+    /**
+     * @return Имя отправителя вебхука
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * @return URL аватара вебхука
+     */
+    public String getAvatarUrl() {
+        return avatarUrl;
+    }
+
+    /**
+     * @return Список embed-объектов сообщения
+     */
+    public List<EmbedObject> getEmbeds() {
+        return embeds;
+    }
+
+    /**
+     * Отправляет вебхук в Discord асинхронно через диспетчер плагина
      * 
      * @return CompletableFuture с результатом выполнения
      */
     public CompletableFuture<Void> executeAsync() {
-        return CompletableFuture.runAsync(() -> {
-            try {
-                execute();
-            } catch (IOException e) {
-                plugin.getLogger().severe("Ошибка при отправке вебхука в Discord: " + e.getMessage());
+        if (this.content == null && this.embeds.isEmpty()) {
+            throw new IllegalArgumentException("Необходимо указать контент или добавить как минимум один embed");
+        }
+
+        WebhookDispatcher dispatcher = plugin.getWebhookDispatcher();
+        if (dispatcher == null) {
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            future.completeExceptionally(new IllegalStateException("Диспетчер вебхуков не запущен"));
+            return future;
+        }
+        return dispatcher.submit(this);
+    }
+
+    /**
+     * Формирует JSON сообщения с указанными embed-объектами и настройками этого вебхука
+     *
+     * @param embeds Embed-объекты
+     * @return Строка JSON
+     */
+    public String toJson(List<EmbedObject> embeds) {
+        return writeJson(new JsonWriter(), embeds).toString();
+    }
+
+    /**
+     * Записывает JSON сообщения с указанными embed-объектами в UTF-8
+     *
+     * @param writer Писатель JSON
+     * @param embeds Embed-объекты
+     * @return Переданный писатель
+     */
+    public JsonWriter writeJson(JsonWriter writer, List<EmbedObject> embeds) {
+        writer.beginObject()
+                .name("content").value(this.content)
+                .name("username").value(this.username)
+                .name("avatar_url").value(this.avatarUrl)
+                .name("tts").value(this.tts);
+
+        if (!embeds.isEmpty()) {
+            writer.name("embeds").beginArray();
+            for (EmbedObject embed : embeds) {
+                embed.writeTo(writer);
             }
-        });
+            writer.endArray();
+        }
+        return writer.endObject();
     }
 
     /**
-     * Отправляет вебхук в Discord синхронно
+     * Отправляет вебхук в Discord синхронно в текущем потоке
      * 
      * @throws IOException Если произошла ошибка при отправке запроса
      */
@@ -119,91 +196,46 @@ public class DiscordWebhook {
             throw new IllegalArgumentException("Необходимо указать контент или добавить как минимум один embed");
         }
 
-        // Формируем JSON для отправки
-        Map<String, Object> jsonData = new HashMap<>();
-        jsonData.put("content", this.content);
-        jsonData.put("username", this.username);
-        jsonData.put("avatar_url", this.avatarUrl);
-        jsonData.put("tts", this.tts);
-
-        if (!this.embeds.isEmpty()) {
-            List<Map<String, Object>> embedObjects = new ArrayList<>();
-            for (EmbedObject embed : this.embeds) {
-                embedObjects.add(embed.toJsonMap());
-            }
-            jsonData.put("embeds", embedObjects);
-        }
+        byte[] body = writeJson(new JsonWriter(), this.embeds).toByteArray();
 
-        String jsonString = JSONUtils.toJson(jsonData);
-
-        // Отправляем запрос на вебхук
-        HttpsURLConnection connection = (HttpsURLConnection) this.url.openConnection();
-        connection.setRequestMethod("POST");
-        connection.setRequestProperty("Content-Type", "application/json");
-        connection.setDoOutput(true);
-
-        try (OutputStream stream = connection.getOutputStream()) {
-            stream.write(jsonString.getBytes());
-            stream.flush();
+        // Отправляем запрос через общий транспорт плагина, чтобы переиспользовать соединение
+        WebhookResponse response;
+        try {
+            response = plugin.getWebhookTransport()
+                    .post(this.url.toString(), body)
+                    .join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            throw cause instanceof IOException ? (IOException) cause : new IOException(cause.getMessage(), cause);
         }
 
-        int responseCode = connection.getResponseCode();
+        int responseCode = response.getStatus();
         if (responseCode == 429) {
-            // Слишком много запросов
-            long retryAfter = connection.getHeaderFieldLong("Retry-After", 5000);
-            plugin.getLogger().warning("Достигнут лимит запросов к вебхуку. Повторная попытка через " + retryAfter + " мс.");
-            try {
-                Thread.sleep(retryAfter);
-                execute(); // Повторяем попытку
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                plugin.getLogger().warning("Прерван во время ожидания повторной попытки отправки вебхука: " + e.getMessage());
-            }
-        } else if (responseCode != 204) {
-            // Любой другой код, кроме 204 (No Content), считается ошибкой
+            // Слишком много запросов - повтор оставляем вызывающему коду, поток не блокируем
+            throw new IOException("Достигнут лимит запросов к вебхуку. Retry-After: " + response.getRetryAfterMillis() + " мс");
+        } else if (responseCode < 200 || responseCode >= 300) {
+            // Любой другой код, кроме 2xx, считается ошибкой
             throw new IOException("Ошибка при отправке вебхука в Discord. Код ответа: " + responseCode);
         }
     }
 
     /**
-     * Создает новый вебхук для логирования события проверки
+     * Отправляет лог события по скомпилированному шаблону
      * 
      * @param plugin Экземпляр плагина
-     * @param action Действие (напр., "Начата проверка", "Завершена проверка")
-     * @param playerName Имя проверяемого игрока
-     * @param staffName Имя администратора
-     * @param details Дополнительные детали (напр., причина, результат)
-     * @param color Цвет embed (null для стандартного)
-     * @return Объект вебхука, готовый к отправке
+     * @param event Событие
+     * @param values Значения слотов шаблона
      */
-    public static DiscordWebhook createCheckWebhook(CheaterCheck plugin, String action, String playerName, String staffName, String details, Color color) {
-        try {
-            String webhookUrl = plugin.getExtendedConfig().getDiscordWebhookUrl();
-            if (webhookUrl == null || webhookUrl.isEmpty()) {
-                return null;
-            }
+    private static void send(CheaterCheck plugin, WebhookTemplates.Event event, WebhookTemplate.Values values) {
+        WebhookDispatcher dispatcher = plugin.getWebhookDispatcher();
+        WebhookTemplates templates = plugin.getExtendedConfig().getWebhookTemplates();
+        if (dispatcher == null || templates == null) {
+            return;
+        }
 
-            DiscordWebhook webhook = new DiscordWebhook(plugin, webhookUrl);
-            webhook.setUsername("CheaterCheck");
-            webhook.setAvatarUrl("https://i.imgur.com/Bzyxsoz.png"); // Дефолтная иконка
-
-            EmbedObject embed = new EmbedObject()
-                .setTitle("**" + action + "**")
-                .setColor(color != null ? color : new Color(44, 47, 51))
-                .setTimestamp(Instant.now())
-                .addField("Игрок", playerName, true)
-                .addField("Администратор", staffName, true);
-                
-            if (details != null && !details.isEmpty()) {
-                embed.setDescription(details);
-            }
-            
-            webhook.addEmbed(embed);
-            
-            return webhook;
-        } catch (IOException e) {
-            plugin.getLogger().severe("Ошибка при создании вебхука: " + e.getMessage());
-            return null;
+        WebhookMessage message = templates.createMessage(event, values);
+        if (message != null) {
+            dispatcher.submit(message);
         }
     }
     
@@ -215,18 +247,7 @@ public class DiscordWebhook {
      * @param staffName Имя администратора
      */
     public static void sendCheckStartLog(CheaterCheck plugin, String playerName, String staffName) {
-        DiscordWebhook webhook = createCheckWebhook(
-            plugin,
-            "Начата проверка",
-            playerName,
-            staffName,
-            "Игрок был вызван на проверку",
-            new Color(255, 165, 0) // Оранжевый цвет
-        );
-        
-        if (webhook != null) {
-            webhook.executeAsync();
-        }
+        send(plugin, WebhookTemplates.Event.CHECK_START, WebhookTemplate.values().player(playerName).staff(staffName));
     }
     
     /**
@@ -239,28 +260,11 @@ public class DiscordWebhook {
      * @param cheat Название чита (если isCheating=true)
      */
     public static void sendCheckFinishLog(CheaterCheck plugin, String playerName, String staffName, boolean isCheating, String cheat) {
-        Color color;
-        String details;
-        
+        WebhookTemplate.Values values = WebhookTemplate.values().player(playerName).staff(staffName);
         if (isCheating) {
-            color = new Color(255, 0, 0); // Красный для бана
-            details = "Игрок был забанен за использование чита: " + (cheat != null ? cheat : "неизвестный");
+            send(plugin, WebhookTemplates.Event.CHECK_FINISH_BANNED, values.cheat(cheat != null ? cheat : "неизвестный"));
         } else {
-            color = new Color(0, 255, 0); // Зеленый для чистого игрока
-            details = "Игрок был проверен и признан чистым";
-        }
-        
-        DiscordWebhook webhook = createCheckWebhook(
-            plugin,
-            "Завершена проверка",
-            playerName,
-            staffName,
-            details,
-            color
-        );
-        
-        if (webhook != null) {
-            webhook.executeAsync();
+            send(plugin, WebhookTemplates.Event.CHECK_FINISH_CLEAN, values);
         }
     }
     
@@ -273,18 +277,8 @@ public class DiscordWebhook {
      * @param autoBan Был ли игрок автоматически забанен
      */
     public static void sendPlayerQuitLog(CheaterCheck plugin, String playerName, String staffName, boolean autoBan) {
-        DiscordWebhook webhook = createCheckWebhook(
-            plugin,
-            "Выход игрока во время проверки",
-            playerName,
-            staffName,
-            autoBan ? "Игрок вышел во время проверки и был автоматически забанен" : "Игрок вышел во время проверки",
-            new Color(128, 0, 128) // Фиолетовый цвет
-        );
-        
-        if (webhook != null) {
-            webhook.executeAsync();
-        }
+        send(plugin, autoBan ? WebhookTemplates.Event.PLAYER_QUIT_BANNED : WebhookTemplates.Event.PLAYER_QUIT,
+                WebhookTemplate.values().player(playerName).staff(staffName));
     }
 
     /**
@@ -292,21 +286,11 @@ public class DiscordWebhook {
      * 
      * @param plugin Экземпляр плагина
      * @param playerName Имя замороженного игрока
-     * @param staffName Имя администратора
+     * @param context Контекст заморозки
      */
-    public static void sendFreezeLog(CheaterCheck plugin, String playerName, String staffName) {
-        DiscordWebhook webhook = createCheckWebhook(
-            plugin,
-            "Заморозка игрока",
-            playerName,
-            staffName,
-            "Игрок был заморожен администратором",
-            new Color(0, 191, 255) // Голубой цвет
-        );
-        
-        if (webhook != null) {
-            webhook.executeAsync();
-        }
+    public static void sendFreezeLog(CheaterCheck plugin, String playerName, FreezeContext context) {
+        send(plugin, WebhookTemplates.Event.FREEZE, WebhookTemplate.values()
+                .player(playerName).staff(context.getActorName()).details(context.describe()));
     }
 
     /**
@@ -314,21 +298,11 @@ public class DiscordWebhook {
      * 
      * @param plugin Экземпляр плагина
      * @param playerName Имя размороженного игрока
-     * @param staffName Имя администратора
+     * @param context Контекст разморозки
      */
-    public static void sendUnfreezeLog(CheaterCheck plugin, String playerName, String staffName) {
-        DiscordWebhook webhook = createCheckWebhook(
-            plugin,
-            "Разморозка игрока",
-            playerName,
-            staffName,
-            "Игрок был разморожен администратором",
-            new Color(30, 144, 255) // Синий цвет
-        );
-        
-        if (webhook != null) {
-            webhook.executeAsync();
-        }
+    public static void sendUnfreezeLog(CheaterCheck plugin, String playerName, FreezeContext context) {
+        send(plugin, WebhookTemplates.Event.UNFREEZE, WebhookTemplate.values()
+                .player(playerName).staff(context.getActorName()).details(context.describe()));
     }
 
     /**
@@ -339,18 +313,7 @@ public class DiscordWebhook {
      * @param staffName Имя администратора
      */
     public static void sendScreenshareLog(CheaterCheck plugin, String playerName, String staffName) {
-        DiscordWebhook webhook = createCheckWebhook(
-            plugin,
-            "Запрос скриншота",
-            playerName,
-            staffName,
-            "У игрока был запрошен скриншот",
-            new Color(255, 215, 0) // Золотой цвет
-        );
-        
-        if (webhook != null) {
-            webhook.executeAsync();
-        }
+        send(plugin, WebhookTemplates.Event.SCREENSHARE, WebhookTemplate.values().player(playerName).staff(staffName));
     }
 
     /**
@@ -362,18 +325,8 @@ public class DiscordWebhook {
      * @param seconds Добавленное время в секундах
      */
     public static void sendAddTimeLog(CheaterCheck plugin, String playerName, String staffName, int seconds) {
-        DiscordWebhook webhook = createCheckWebhook(
-            plugin,
-            "Добавление времени проверки",
-            playerName,
-            staffName,
-            "К проверке добавлено " + seconds + " секунд",
-            new Color(255, 140, 0) // Оранжевый цвет
-        );
-        
-        if (webhook != null) {
-            webhook.executeAsync();
-        }
+        send(plugin, WebhookTemplates.Event.ADD_TIME, WebhookTemplate.values()
+                .player(playerName).staff(staffName).duration(Integer.toString(seconds)));
     }
 
     /**
@@ -384,28 +337,7 @@ public class DiscordWebhook {
      * @param location Строковое представление локации
      */
     public static void sendSetCheckLocationLog(CheaterCheck plugin, String staffName, String location) {
-        try {
-            String webhookUrl = plugin.getExtendedConfig().getDiscordWebhookUrl();
-            if (webhookUrl == null || webhookUrl.isEmpty()) {
-                return;
-            }
-
-            DiscordWebhook webhook = new DiscordWebhook(plugin, webhookUrl);
-            webhook.setUsername(plugin.getExtendedConfig().getDiscordUsername());
-            webhook.setAvatarUrl(plugin.getExtendedConfig().getDiscordAvatarUrl());
-
-            EmbedObject embed = new EmbedObject()
-                .setTitle("**Установка локации проверки**")
-                .setColor(new Color(75, 0, 130)) // Индиго
-                .setTimestamp(Instant.now())
-                .addField("Администратор", staffName, true)
-                .setDescription("Установлена новая локация для проверок: " + location);
-                
-            webhook.addEmbed(embed);
-            webhook.executeAsync();
-        } catch (IOException e) {
-            plugin.getLogger().severe("Ошибка при создании вебхука для логирования установки локации: " + e.getMessage());
-        }
+        send(plugin, WebhookTemplates.Event.SET_LOCATION, WebhookTemplate.values().staff(staffName).details(location));
     }
 
     /**
@@ -417,18 +349,8 @@ public class DiscordWebhook {
      * @param isPaused true - поставлен на паузу, false - возобновлен
      */
     public static void sendTimerPauseLog(CheaterCheck plugin, String playerName, String staffName, boolean isPaused) {
-        DiscordWebhook webhook = createCheckWebhook(
-            plugin,
-            isPaused ? "Пауза таймера проверки" : "Возобновление таймера проверки",
-            playerName,
-            staffName,
-            isPaused ? "Таймер проверки поставлен на паузу" : "Таймер проверки возобновлен",
-            isPaused ? new Color(169, 169, 169) : new Color(50, 205, 50) // Серый или зеленый
-        );
-        
-        if (webhook != null) {
-            webhook.executeAsync();
-        }
+        send(plugin, isPaused ? WebhookTemplates.Event.TIMER_PAUSE : WebhookTemplates.Event.TIMER_RESUME,
+                WebhookTemplate.values().player(playerName).staff(staffName));
     }
 
     /**
@@ -440,29 +362,8 @@ public class DiscordWebhook {
      * @param details Детали обновления
      */
     public static void sendSettingsUpdateLog(CheaterCheck plugin, String staffName, String settingType, String details) {
-        try {
-            String webhookUrl = plugin.getExtendedConfig().getDiscordWebhookUrl();
-            if (webhookUrl == null || webhookUrl.isEmpty()) {
-                return;
-            }
-
-            DiscordWebhook webhook = new DiscordWebhook(plugin, webhookUrl);
-            webhook.setUsername(plugin.getExtendedConfig().getDiscordUsername());
-            webhook.setAvatarUrl(plugin.getExtendedConfig().getDiscordAvatarUrl());
-
-            EmbedObject embed = new EmbedObject()
-                .setTitle("**Обновление настроек плагина**")
-                .setColor(new Color(70, 130, 180)) // Стальной синий
-                .setTimestamp(Instant.now())
-                .addField("Администратор", staffName, true)
-                .addField("Тип настройки", settingType, true)
-                .setDescription(details);
-                
-            webhook.addEmbed(embed);
-            webhook.executeAsync();
-        } catch (IOException e) {
-            plugin.getLogger().severe("Ошибка при создании вебхука для логирования обновления настроек: " + e.getMessage());
-        }
+        send(plugin, WebhookTemplates.Event.SETTINGS_UPDATE, WebhookTemplate.values()
+                .staff(staffName).setting(settingType).details(details));
     }
 
     /**
@@ -474,12 +375,17 @@ public class DiscordWebhook {
         private String url;
         private Color color;
         private Instant timestamp;
-        
-        private Map<String, String> footer = new HashMap<>();
-        private Map<String, String> image = new HashMap<>();
-        private Map<String, String> thumbnail = new HashMap<>();
-        private Map<String, String> author = new HashMap<>();
-        private List<Map<String, Object>> fields = new ArrayList<>();
+
+        private String footerText;
+        private String footerIconUrl;
+        private String imageUrl;
+        private String thumbnailUrl;
+        private String authorName;
+        private String authorUrl;
+        private String authorIconUrl;
+        private boolean hasFooter;
+        private boolean hasAuthor;
+        private final List<Field> fields = new ArrayList<>();
 
         public EmbedObject setTitle(String title) {
             this.title = title;
@@ -507,58 +413,91 @@ public class DiscordWebhook {
         }
 
         public EmbedObject setFooter(String text, String iconUrl) {
-            this.footer.put("text", text);
-            this.footer.put("icon_url", iconUrl);
+            this.footerText = text;
+            this.footerIconUrl = iconUrl;
+            this.hasFooter = true;
             return this;
         }
 
         public EmbedObject setImage(String url) {
-            this.image.put("url", url);
+            this.imageUrl = url;
             return this;
         }
 
         public EmbedObject setThumbnail(String url) {
-            this.thumbnail.put("url", url);
+            this.thumbnailUrl = url;
             return this;
         }
 
         public EmbedObject setAuthor(String name, String url, String iconUrl) {
-            this.author.put("name", name);
-            this.author.put("url", url);
-            this.author.put("icon_url", iconUrl);
+            this.authorName = name;
+            this.authorUrl = url;
+            this.authorIconUrl = iconUrl;
+            this.hasAuthor = true;
             return this;
         }
 
         public EmbedObject addField(String name, String value, boolean inline) {
-            Map<String, Object> field = new HashMap<>();
-            field.put("name", name);
-            field.put("value", value);
-            field.put("inline", inline);
-            this.fields.add(field);
+            this.fields.add(new Field(name, value, inline));
             return this;
         }
         
         /**
-         * Преобразует объект Embed в Map для последующей сериализации в JSON
+         * Записывает объект Embed в JSON напрямую, без промежуточных Map
          * 
-         * @return Map с данными объекта
+         * @param writer Писатель JSON
          */
-        public Map<String, Object> toJsonMap() {
-            Map<String, Object> embedMap = new HashMap<>();
-            
-            if (this.title != null) embedMap.put("title", this.title);
-            if (this.description != null) embedMap.put("description", this.description);
-            if (this.url != null) embedMap.put("url", this.url);
-            if (this.color != null) embedMap.put("color", this.color.getRGB() & 0xFFFFFF);
-            if (this.timestamp != null) embedMap.put("timestamp", this.timestamp.toString());
-            
-            if (!this.footer.isEmpty()) embedMap.put("footer", this.footer);
-            if (!this.image.isEmpty()) embedMap.put("image", this.image);
-            if (!this.thumbnail.isEmpty()) embedMap.put("thumbnail", this.thumbnail);
-            if (!this.author.isEmpty()) embedMap.put("author", this.author);
-            if (!this.fields.isEmpty()) embedMap.put("fields", this.fields);
-            
-            return embedMap;
+        public void writeTo(JsonWriter writer) {
+            writer.beginObject();
+            if (this.title != null) writer.name("title").value(this.title);
+            if (this.description != null) writer.name("description").value(this.description);
+            if (this.url != null) writer.name("url").value(this.url);
+            if (this.color != null) writer.name("color").value(this.color.getRGB() & 0xFFFFFF);
+            if (this.timestamp != null) writer.name("timestamp").value(this.timestamp.toString());
+
+            if (this.hasFooter) {
+                writer.name("footer").beginObject()
+                        .name("text").value(this.footerText)
+                        .name("icon_url").value(this.footerIconUrl)
+                        .endObject();
+            }
+            if (this.imageUrl != null) {
+                writer.name("image").beginObject().name("url").value(this.imageUrl).endObject();
+            }
+            if (this.thumbnailUrl != null) {
+                writer.name("thumbnail").beginObject().name("url").value(this.thumbnailUrl).endObject();
+            }
+            if (this.hasAuthor) {
+                writer.name("author").beginObject()
+                        .name("name").value(this.authorName)
+                        .name("url").value(this.authorUrl)
+                        .name("icon_url").value(this.authorIconUrl)
+                        .endObject();
+            }
+            if (!this.fields.isEmpty()) {
+                writer.name("fields").beginArray();
+                for (Field field : this.fields) {
+                    writer.beginObject()
+                            .name("name").value(field.name)
+                            .name("value").value(field.value)
+                            .name("inline").value(field.inline)
+                            .endObject();
+                }
+                writer.endArray();
+            }
+            writer.endObject();
+        }
+
+        private static final class Field {
+            private final String name;
+            private final String value;
+            private final boolean inline;
+
+            private Field(String name, String value, boolean inline) {
+                this.name = name;
+                this.value = value;
+                this.inline = inline;
+            }
         }
     }
 } 
\ No newline at end of file
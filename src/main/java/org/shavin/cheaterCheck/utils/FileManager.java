@@ -1,19 +1,46 @@
 package org.shavin.cheaterCheck.utils;
 
-import org.bukkit.Location;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.shavin.cheaterCheck.CheaterCheck;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class FileManager {
+    // Задержка сохранения списка байпаса: несколько изменений подряд записываются одним сохранением
+    private static final long BYPASS_SAVE_DELAY_TICKS = 20L;
+
     private final CheaterCheck plugin;
     
+    // Источник истины для списка байпаса; файл лишь его копия на диске
+    private final BypassList bypassList = new BypassList();
+    private final AtomicBoolean bypassSavePending = new AtomicBoolean();
+    // Защищает checkBypassConfig и запись файла байпаса
+    private final Object bypassLock = new Object();
+    // Изменения из игры, еще не записанные в файл. Берется после bypassLock, если нужны обе блокировки
+    private final Object bypassChangesLock = new Object();
+    private final Map<String, UUID> unsavedBypassAdds = new LinkedHashMap<>();
+    private final Set<String> unsavedBypassRemovals = new HashSet<>();
+    
     private File checkBypassFile;
     private FileConfiguration checkBypassConfig;
     
@@ -22,6 +49,10 @@ public class FileManager {
     
     private File onStartCommandsFile;
     private FileConfiguration onStartCommandsConfig;
+    
+    // Неизменяемые снимки списков команд, заменяются целиком при перезагрузке файла
+    private volatile List<String> onQuitCommands = Collections.emptyList();
+    private volatile List<String> onStartCommands = Collections.emptyList();
 
     public FileManager(CheaterCheck plugin) {
         this.plugin = plugin;
@@ -34,7 +65,7 @@ public class FileManager {
     public void setupFiles() {
         createFile("checkbypass.yml");
         checkBypassFile = new File(plugin.getDataFolder(), "checkbypass.yml");
-        checkBypassConfig = YamlConfiguration.loadConfiguration(checkBypassFile);
+        loadBypassList();
         
         // Создаем файл для команд при выходе
         createFile("onquit_commands.yml");
@@ -47,7 +78,6 @@ public class FileManager {
         onStartCommandsConfig = YamlConfiguration.loadConfiguration(onStartCommandsFile);
         
         // Инициализируем списки в файлах, если их нет
-        initializeConfig(checkBypassConfig, "bypass_list", new ArrayList<>());
         initializeConfig(onQuitCommandsConfig, "commands", new ArrayList<String>() {{
             add("ban {player} Выход во время проверки");
         }});
@@ -57,6 +87,35 @@ public class FileManager {
         
         // Сохраняем файлы
         saveFiles();
+        onQuitCommands = Collections.unmodifiableList(new ArrayList<>(onQuitCommandsConfig.getStringList("commands")));
+        onStartCommands = Collections.unmodifiableList(new ArrayList<>(onStartCommandsConfig.getStringList("commands")));
+    }
+    
+    /**
+     * Регистрирует обработчики файлов в наблюдателе: правки файлов применяются без /check reload
+     *
+     * @param watcher Наблюдатель за папкой плагина
+     */
+    public void registerReloaders(ConfigWatcher watcher) {
+        watcher.register("checkbypass.yml", this::applyBypassFile);
+        watcher.register("onquit_commands.yml", content -> onQuitCommands = parseCommands(content));
+        watcher.register("onstart_commands.yml", content -> onStartCommands = parseCommands(content));
+    }
+    
+    /**
+     * Разбирает файл со списком команд
+     *
+     * @param content Содержимое файла
+     * @return Неизменяемый список команд
+     * @throws InvalidConfigurationException Если файл некорректен
+     */
+    private static List<String> parseCommands(String content) throws InvalidConfigurationException {
+        YamlConfiguration config = new YamlConfiguration();
+        config.loadFromString(content);
+        if (!config.isList("commands")) {
+            throw new InvalidConfigurationException("Отсутствует список commands");
+        }
+        return Collections.unmodifiableList(new ArrayList<>(config.getStringList("commands")));
     }
     
     /**
@@ -101,8 +160,8 @@ public class FileManager {
      * Сохраняет все файлы конфигурации
      */
     public void saveFiles() {
+        saveBypassList();
         try {
-            checkBypassConfig.save(checkBypassFile);
             onQuitCommandsConfig.save(onQuitCommandsFile);
             onStartCommandsConfig.save(onStartCommandsFile);
         } catch (IOException e) {
@@ -111,12 +170,26 @@ public class FileManager {
     }
 
     /**
-     * Перезагружает все файлы конфигурации
+     * Перезагружает все файлы конфигурации. Файлы читаются и разбираются в потоке
+     * наблюдателя, основной поток не ждет диск
      */
     public void reloadFiles() {
-        checkBypassConfig = YamlConfiguration.loadConfiguration(checkBypassFile);
-        onQuitCommandsConfig = YamlConfiguration.loadConfiguration(onQuitCommandsFile);
-        onStartCommandsConfig = YamlConfiguration.loadConfiguration(onStartCommandsFile);
+        ConfigWatcher watcher = plugin.getConfigWatcher();
+        if (watcher == null) {
+            flushBypassList();
+            loadBypassList();
+            onQuitCommands = Collections.unmodifiableList(new ArrayList<>(
+                    YamlConfiguration.loadConfiguration(onQuitCommandsFile).getStringList("commands")));
+            onStartCommands = Collections.unmodifiableList(new ArrayList<>(
+                    YamlConfiguration.loadConfiguration(onStartCommandsFile).getStringList("commands")));
+            return;
+        }
+        
+        // Несохраненные изменения байпаса записываются до повторного чтения файла
+        watcher.execute(this::flushBypassList);
+        watcher.requestReload("checkbypass.yml");
+        watcher.requestReload("onquit_commands.yml");
+        watcher.requestReload("onstart_commands.yml");
     }
 
     /**
@@ -125,7 +198,17 @@ public class FileManager {
      * @return Список имен игроков в байпасе
      */
     public List<String> getBypassList() {
-        return checkBypassConfig.getStringList("bypass_list");
+        return bypassList.getNames();
+    }
+
+    /**
+     * Находит игроков в байпасе по началу имени для автодополнения
+     *
+     * @param prefix Начало имени
+     * @return Имена в алфавитном порядке
+     */
+    public List<String> completeBypassList(String prefix) {
+        return bypassList.complete(prefix);
     }
     
     /**
@@ -135,8 +218,18 @@ public class FileManager {
      * @return true, если игрок в списке байпаса
      */
     public boolean isPlayerInBypassList(String playerName) {
-        List<String> bypassList = checkBypassConfig.getStringList("bypass_list");
-        return bypassList.contains(playerName.toLowerCase());
+        return bypassList.contains(playerName);
+    }
+    
+    /**
+     * Проверяет, находится ли игрок в списке байпаса по UUID или имени
+     *
+     * @param playerUuid UUID игрока
+     * @param playerName Имя игрока
+     * @return true, если игрок в списке байпаса
+     */
+    public boolean isPlayerInBypassList(UUID playerUuid, String playerName) {
+        return bypassList.contains(playerUuid, playerName);
     }
     
     /**
@@ -146,16 +239,26 @@ public class FileManager {
      * @return true, если игрок успешно добавлен
      */
     public boolean addPlayerToBypassList(String playerName) {
-        List<String> bypassList = checkBypassConfig.getStringList("bypass_list");
-        String lowerName = playerName.toLowerCase();
-        
-        if (bypassList.contains(lowerName)) {
-            return false;
+        return addPlayerToBypassList(playerName, null);
+    }
+    
+    /**
+     * Добавляет игрока в список байпаса
+     *
+     * @param playerName Имя игрока
+     * @param playerUuid UUID игрока или null, если неизвестен
+     * @return true, если игрок успешно добавлен
+     */
+    public boolean addPlayerToBypassList(String playerName, UUID playerUuid) {
+        synchronized (bypassChangesLock) {
+            if (!bypassList.add(playerName, playerUuid)) {
+                return false;
+            }
+            String key = BypassList.normalize(playerName);
+            unsavedBypassRemovals.remove(key);
+            unsavedBypassAdds.put(key, playerUuid);
         }
-        
-        bypassList.add(lowerName);
-        checkBypassConfig.set("bypass_list", bypassList);
-        saveFiles();
+        scheduleBypassSave();
         return true;
     }
     
@@ -166,26 +269,163 @@ public class FileManager {
      * @return true, если игрок успешно удален
      */
     public boolean removePlayerFromBypassList(String playerName) {
-        List<String> bypassList = checkBypassConfig.getStringList("bypass_list");
-        String lowerName = playerName.toLowerCase();
-        
-        if (!bypassList.contains(lowerName)) {
-            return false;
+        synchronized (bypassChangesLock) {
+            if (!bypassList.remove(playerName)) {
+                return false;
+            }
+            String key = BypassList.normalize(playerName);
+            unsavedBypassAdds.remove(key);
+            unsavedBypassRemovals.add(key);
         }
-        
-        bypassList.remove(lowerName);
-        checkBypassConfig.set("bypass_list", bypassList);
-        saveFiles();
+        scheduleBypassSave();
         return true;
     }
     
+    /**
+     * Сохраняет список байпаса, если есть несохраненные изменения.
+     * Вызывается при выключении плагина
+     */
+    public void flushBypassList() {
+        if (bypassSavePending.get()) {
+            saveBypassList();
+        }
+    }
+    
+    /**
+     * Загружает список байпаса из файла
+     */
+    private void loadBypassList() {
+        FileConfiguration config = YamlConfiguration.loadConfiguration(checkBypassFile);
+        initializeConfig(config, "bypass_list", new ArrayList<>());
+        publishBypassList(config, readBypassEntries(config));
+    }
+    
+    /**
+     * Применяет измененный файл байпаса. Вызывается в потоке наблюдателя.
+     * Несохраненные изменения из игры применяются поверх файла и записываются следующим сохранением
+     *
+     * @param content Содержимое файла
+     * @throws InvalidConfigurationException Если файл некорректен
+     */
+    private void applyBypassFile(String content) throws InvalidConfigurationException {
+        YamlConfiguration config = new YamlConfiguration();
+        config.loadFromString(content);
+        if (!config.isList("bypass_list")) {
+            throw new InvalidConfigurationException("Отсутствует список bypass_list");
+        }
+        publishBypassList(config, readBypassEntries(config));
+    }
+    
+    private void publishBypassList(FileConfiguration config, Map<String, UUID> entries) {
+        boolean merged;
+        synchronized (bypassLock) {
+            synchronized (bypassChangesLock) {
+                merged = !unsavedBypassAdds.isEmpty() || !unsavedBypassRemovals.isEmpty();
+                if (merged) {
+                    plugin.getLogger().warning("checkbypass.yml изменен до сохранения изменений из игры: добавлено "
+                            + unsavedBypassAdds.size() + ", удалено " + unsavedBypassRemovals.size()
+                            + " записей, они применены поверх файла");
+                    entries.keySet().removeAll(unsavedBypassRemovals);
+                    for (Map.Entry<String, UUID> entry : unsavedBypassAdds.entrySet()) {
+                        if (entry.getValue() != null || !entries.containsKey(entry.getKey())) {
+                            entries.put(entry.getKey(), entry.getValue());
+                        }
+                    }
+                }
+                checkBypassConfig = config;
+                bypassList.load(entries);
+            }
+        }
+        if (merged) {
+            scheduleBypassSave();
+        }
+    }
+    
+    private Map<String, UUID> readBypassEntries(FileConfiguration config) {
+        ConfigurationSection uuidSection = config.getConfigurationSection("bypass_uuids");
+        Map<String, UUID> entries = new LinkedHashMap<>();
+        for (String name : config.getStringList("bypass_list")) {
+            String key = BypassList.normalize(name);
+            UUID playerUuid = null;
+            String rawUuid = uuidSection != null ? uuidSection.getString(key) : null;
+            if (rawUuid != null) {
+                try {
+                    playerUuid = UUID.fromString(rawUuid);
+                } catch (IllegalArgumentException e) {
+                    plugin.getLogger().warning("Некорректный UUID игрока " + name + " в checkbypass.yml: " + rawUuid);
+                }
+            }
+            entries.put(key, playerUuid);
+        }
+        return entries;
+    }
+    
+    /**
+     * Планирует асинхронное сохранение списка байпаса
+     */
+    private void scheduleBypassSave() {
+        if (bypassSavePending.compareAndSet(false, true)) {
+            Bukkit.getScheduler().runTaskLaterAsynchronously(plugin, this::saveBypassList, BYPASS_SAVE_DELAY_TICKS);
+        }
+    }
+    
+    /**
+     * Записывает текущий список байпаса в файл через временный файл и атомарное переименование,
+     * поэтому файл на диске никогда не бывает записан наполовину
+     */
+    private void saveBypassList() {
+        synchronized (bypassLock) {
+            // Снимок берется под блокировкой записи: более позднее сохранение всегда запишет более свежие данные
+            Map<String, UUID> entries;
+            synchronized (bypassChangesLock) {
+                bypassSavePending.set(false);
+                entries = bypassList.snapshot();
+                unsavedBypassAdds.clear();
+                unsavedBypassRemovals.clear();
+            }
+            
+            List<String> names = new ArrayList<>(entries.keySet());
+            Map<String, String> uuids = new LinkedHashMap<>();
+            for (Map.Entry<String, UUID> entry : entries.entrySet()) {
+                if (entry.getValue() != null) {
+                    uuids.put(entry.getKey(), entry.getValue().toString());
+                }
+            }
+            checkBypassConfig.set("bypass_list", names);
+            checkBypassConfig.set("bypass_uuids", uuids.isEmpty() ? null : uuids);
+            
+            try {
+                String content = checkBypassConfig.saveToString();
+                writeAtomically(checkBypassFile.toPath(), content);
+                // Собственная запись не должна вызывать повторное чтение файла
+                ConfigWatcher watcher = plugin.getConfigWatcher();
+                if (watcher != null) {
+                    watcher.markWritten("checkbypass.yml", content);
+                }
+            } catch (IOException e) {
+                plugin.getLogger().severe("Не удалось сохранить список байпаса: " + e.getMessage());
+            }
+        }
+    }
+    
+    private static void writeAtomically(Path target, String content) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        Files.write(temp, content.getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE, StandardOpenOption.SYNC);
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+    
     /**
      * Получает список команд, выполняемых при выходе игрока во время проверки
      *
      * @return Список команд
      */
     public List<String> getOnQuitCommands() {
-        return onQuitCommandsConfig.getStringList("commands");
+        return onQuitCommands;
     }
     
     /**
@@ -194,6 +434,6 @@ public class FileManager {
      * @return Список команд
      */
     public List<String> getOnStartCommands() {
-        return onStartCommandsConfig.getStringList("commands");
+        return onStartCommands;
     }
 } 
\ No newline at end of file
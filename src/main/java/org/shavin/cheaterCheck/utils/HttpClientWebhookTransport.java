@@ -0,0 +1,62 @@
+package org.shavin.cheaterCheck.utils;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Транспорт вебхуков на общем {@link HttpClient} с HTTP/2.
+ * Соединения переиспользуются между запросами, поэтому TLS рукопожатие не выполняется на каждое сообщение
+ */
+public class HttpClientWebhookTransport implements WebhookTransport {
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private final ExecutorService executor;
+    private final HttpClient client;
+
+    public HttpClientWebhookTransport() {
+        this.executor = Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "CheaterCheck-Http");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(TIMEOUT)
+                .executor(executor)
+                .build();
+    }
+
+    @Override
+    public CompletableFuture<WebhookResponse> post(String url, byte[] body) {
+        HttpRequest request;
+        try {
+            request = HttpRequest.newBuilder(URI.create(url))
+                    .timeout(TIMEOUT)
+                    .header("Content-Type", "application/json; charset=utf-8")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                    .build();
+        } catch (IllegalArgumentException e) {
+            CompletableFuture<WebhookResponse> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+
+        // Тело ответа читается полностью (и отбрасывается), чтобы соединение вернулось в пул
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .thenApply(response -> WebhookResponse.fromHeaders(response.statusCode(),
+                        response.headers().firstValue("Retry-After").orElse(null),
+                        response.headers().firstValue("X-RateLimit-Remaining").orElse(null),
+                        response.headers().firstValue("X-RateLimit-Reset-After").orElse(null)));
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,384 @@
+package org.shavin.cheaterCheck.utils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Array;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Потоковая запись JSON сразу в UTF-8 в переиспользуемый буфер.
+ * Вложенные объекты не собираются в промежуточные строки, а ASCII-участки строк
+ * без спецсимволов копируются в буфер напрямую. Экземпляр можно использовать повторно
+ * после {@link #reset()}. Не потокобезопасен.
+ */
+public class JsonWriter {
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NULL = "null".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TRUE = "true".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] FALSE = "false".getBytes(StandardCharsets.US_ASCII);
+    private static final int MAX_DEPTH = 64;
+
+    private byte[] buffer;
+    private int size;
+    // Для каждого уровня вложенности: был ли уже записан элемент (нужна запятая)
+    private final boolean[] hasElements = new boolean[MAX_DEPTH];
+    private int depth;
+    private boolean afterName;
+
+    public JsonWriter() {
+        this(512);
+    }
+
+    public JsonWriter(int initialCapacity) {
+        this.buffer = new byte[Math.max(16, initialCapacity)];
+    }
+
+    /**
+     * Очищает буфер для записи нового документа, сохраняя выделенную память
+     *
+     * @return Текущий экземпляр для цепочки вызовов
+     */
+    public JsonWriter reset() {
+        size = 0;
+        depth = 0;
+        afterName = false;
+        return this;
+    }
+
+    public JsonWriter beginObject() {
+        beforeValue();
+        writeByte('{');
+        push();
+        return this;
+    }
+
+    public JsonWriter endObject() {
+        pop();
+        writeByte('}');
+        return this;
+    }
+
+    public JsonWriter beginArray() {
+        beforeValue();
+        writeByte('[');
+        push();
+        return this;
+    }
+
+    public JsonWriter endArray() {
+        pop();
+        writeByte(']');
+        return this;
+    }
+
+    /**
+     * Записывает имя поля объекта
+     *
+     * @param name Имя поля
+     * @return Текущий экземпляр для цепочки вызовов
+     */
+    public JsonWriter name(String name) {
+        beforeValue();
+        writeString(name);
+        writeByte(':');
+        afterName = true;
+        return this;
+    }
+
+    public JsonWriter value(String value) {
+        beforeValue();
+        if (value == null) {
+            writeBytes(NULL, 0, NULL.length);
+        } else {
+            writeString(value);
+        }
+        return this;
+    }
+
+    public JsonWriter value(long value) {
+        beforeValue();
+        writeAscii(Long.toString(value));
+        return this;
+    }
+
+    public JsonWriter value(boolean value) {
+        beforeValue();
+        byte[] literal = value ? TRUE : FALSE;
+        writeBytes(literal, 0, literal.length);
+        return this;
+    }
+
+    public JsonWriter nullValue() {
+        beforeValue();
+        writeBytes(NULL, 0, NULL.length);
+        return this;
+    }
+
+    /**
+     * Записывает уже сериализованный JSON как значение
+     *
+     * @param json JSON в UTF-8
+     * @return Текущий экземпляр для цепочки вызовов
+     */
+    public JsonWriter rawValue(byte[] json) {
+        beforeValue();
+        writeBytes(json, 0, json.length);
+        return this;
+    }
+
+    /**
+     * Дописывает готовый фрагмент JSON без разделителей. Используется скомпилированными шаблонами
+     *
+     * @param fragment Фрагмент в UTF-8
+     * @return Текущий экземпляр для цепочки вызовов
+     */
+    public JsonWriter raw(byte[] fragment) {
+        writeBytes(fragment, 0, fragment.length);
+        return this;
+    }
+
+    /**
+     * Дописывает экранированное содержимое строки без кавычек и разделителей.
+     * Используется скомпилированными шаблонами для заполнения слотов внутри строк
+     *
+     * @param value Строка
+     * @return Текущий экземпляр для цепочки вызовов
+     */
+    public JsonWriter escaped(String value) {
+        writeStringContent(value);
+        return this;
+    }
+
+    /**
+     * Записывает произвольное значение: строки, числа, логические значения,
+     * Map, коллекции и массивы (рекурсивно). Прочие объекты записываются как строка
+     *
+     * @param value Значение
+     * @return Текущий экземпляр для цепочки вызовов
+     */
+    public JsonWriter value(Object value) {
+        if (value == null) {
+            return nullValue();
+        }
+        if (value instanceof String) {
+            return value((String) value);
+        }
+        if (value instanceof Boolean) {
+            return value(((Boolean) value).booleanValue());
+        }
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            return value(((Number) value).longValue());
+        }
+        if (value instanceof Number) {
+            beforeValue();
+            writeAscii(value.toString());
+            return this;
+        }
+        if (value instanceof Map) {
+            beginObject();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                name(String.valueOf(entry.getKey()));
+                value(entry.getValue());
+            }
+            return endObject();
+        }
+        if (value instanceof Collection) {
+            beginArray();
+            for (Object item : (Collection<?>) value) {
+                value(item);
+            }
+            return endArray();
+        }
+        if (value.getClass().isArray()) {
+            beginArray();
+            for (int i = 0, length = Array.getLength(value); i < length; i++) {
+                value(Array.get(value, i));
+            }
+            return endArray();
+        }
+        return value(value.toString());
+    }
+
+    /**
+     * @return Количество записанных байт
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return Копия записанного JSON в UTF-8
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    /**
+     * Записывает накопленный JSON в поток без промежуточного копирования
+     *
+     * @param out Поток
+     * @throws IOException Если запись не удалась
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(buffer, 0, size);
+    }
+
+    @Override
+    public String toString() {
+        return new String(buffer, 0, size, StandardCharsets.UTF_8);
+    }
+
+    private void beforeValue() {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        if (depth > 0) {
+            if (hasElements[depth - 1]) {
+                writeByte(',');
+            }
+            hasElements[depth - 1] = true;
+        }
+    }
+
+    private void push() {
+        if (depth == MAX_DEPTH) {
+            throw new IllegalStateException("Слишком глубокая вложенность JSON");
+        }
+        hasElements[depth++] = false;
+    }
+
+    private void pop() {
+        if (depth == 0) {
+            throw new IllegalStateException("Нет открытого объекта или массива");
+        }
+        depth--;
+    }
+
+    private void writeString(String value) {
+        writeByte('"');
+        writeStringContent(value);
+        writeByte('"');
+    }
+
+    private void writeStringContent(String value) {
+        int length = value.length();
+        // Худший случай: каждый символ превращается в \\uXXXX
+        ensureCapacity(length * 6);
+        byte[] out = buffer;
+        int position = size;
+
+        int i = 0;
+        while (i < length) {
+            // Быстрый путь: печатные ASCII символы без экранирования копируются побайтно
+            char c = value.charAt(i);
+            while (c >= 0x20 && c < 0x7F && c != '"' && c != '\\') {
+                out[position++] = (byte) c;
+                if (++i == length) {
+                    break;
+                }
+                c = value.charAt(i);
+            }
+            if (i == length) {
+                break;
+            }
+
+            if (c < 0x80) {
+                position = writeEscaped(out, position, c);
+            } else if (c < 0x800) {
+                out[position++] = (byte) (0xC0 | (c >> 6));
+                out[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                out[position++] = (byte) (0xF0 | (codePoint >> 18));
+                out[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                out[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                out[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // Одиночный суррогат нельзя закодировать в UTF-8, оставляем его экранированным
+                position = writeUnicodeEscape(out, position, c);
+            } else {
+                out[position++] = (byte) (0xE0 | (c >> 12));
+                out[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                out[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+            i++;
+        }
+
+        size = position;
+    }
+
+    private static int writeEscaped(byte[] out, int position, char c) {
+        switch (c) {
+            case '"':
+                out[position++] = '\\';
+                out[position++] = '"';
+                return position;
+            case '\\':
+                out[position++] = '\\';
+                out[position++] = '\\';
+                return position;
+            case '\b':
+                out[position++] = '\\';
+                out[position++] = 'b';
+                return position;
+            case '\f':
+                out[position++] = '\\';
+                out[position++] = 'f';
+                return position;
+            case '\n':
+                out[position++] = '\\';
+                out[position++] = 'n';
+                return position;
+            case '\r':
+                out[position++] = '\\';
+                out[position++] = 'r';
+                return position;
+            case '\t':
+                out[position++] = '\\';
+                out[position++] = 't';
+                return position;
+            default:
+                return writeUnicodeEscape(out, position, c);
+        }
+    }
+
+    private static int writeUnicodeEscape(byte[] out, int position, char c) {
+        out[position++] = '\\';
+        out[position++] = 'u';
+        out[position++] = HEX[(c >> 12) & 0xF];
+        out[position++] = HEX[(c >> 8) & 0xF];
+        out[position++] = HEX[(c >> 4) & 0xF];
+        out[position++] = HEX[c & 0xF];
+        return position;
+    }
+
+    private void writeAscii(String value) {
+        int length = value.length();
+        ensureCapacity(length);
+        for (int i = 0; i < length; i++) {
+            buffer[size++] = (byte) value.charAt(i);
+        }
+    }
+
+    private void writeByte(char c) {
+        ensureCapacity(1);
+        buffer[size++] = (byte) c;
+    }
+
+    private void writeBytes(byte[] bytes, int offset, int length) {
+        ensureCapacity(length);
+        System.arraycopy(bytes, offset, buffer, size, length);
+        size += length;
+    }
+
+    private void ensureCapacity(int additional) {
+        int required = size + additional;
+        if (required > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(required, buffer.length << 1));
+        }
+    }
+}
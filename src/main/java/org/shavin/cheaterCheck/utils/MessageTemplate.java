@@ -0,0 +1,201 @@
+package org.shavin.cheaterCheck.utils;
+
+import net.kyori.adventure.text.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Скомпилированный шаблон сообщения из конфигурации.
+ * Цветовые коды переводятся в § один раз при компиляции, а текст заранее разбит
+ * на готовые фрагменты и плейсхолдеры вида {name}, поэтому при отправке сообщения
+ * остается один проход с записью в буфер нужного размера.
+ * Значения плейсхолдеров не раскрашиваются и повторно не разбираются.
+ */
+public final class MessageTemplate {
+    // Предполагаемая длина значения плейсхолдера для выбора размера буфера
+    private static final int VALUE_SIZE_HINT = 16;
+
+    private final String text;
+    // literals.length == placeholders.length + 1
+    private final String[] literals;
+    private final String[] placeholders;
+    private final int literalLength;
+
+    // Готовый компонент, только для шаблонов без плейсхолдеров
+    private volatile Component component;
+    // Последний собранный шаблон с префиксом
+    private volatile Prefixed prefixed;
+
+    private MessageTemplate(String text, String[] literals, String[] placeholders, int literalLength) {
+        this.text = text;
+        this.literals = literals;
+        this.placeholders = placeholders;
+        this.literalLength = literalLength;
+    }
+
+    /**
+     * Компилирует шаблон: раскрашивает текст и выделяет плейсхолдеры
+     *
+     * @param raw Текст из конфигурации с цветовыми кодами &
+     * @return Шаблон
+     */
+    public static MessageTemplate compile(String raw) {
+        return parse(ChatUtils.colorize(raw));
+    }
+
+    /**
+     * Компилирует шаблон без обработки цветовых кодов, например для команд консоли
+     *
+     * @param raw Текст с плейсхолдерами
+     * @return Шаблон
+     */
+    public static MessageTemplate compilePlain(String raw) {
+        return parse(raw != null ? raw : "");
+    }
+
+    private static MessageTemplate parse(String text) {
+        List<String> literals = new ArrayList<>();
+        List<String> placeholders = new ArrayList<>();
+        StringBuilder literal = new StringBuilder(text.length());
+        int literalLength = 0;
+
+        int start = 0;
+        int open;
+        while ((open = text.indexOf('{', start)) >= 0) {
+            int close = placeholderEnd(text, open);
+            if (close < 0) {
+                literal.append(text, start, open + 1);
+                start = open + 1;
+                continue;
+            }
+
+            literal.append(text, start, open);
+            literals.add(literal.toString());
+            literalLength += literal.length();
+            literal.setLength(0);
+            placeholders.add(text.substring(open, close + 1));
+            start = close + 1;
+        }
+        literal.append(text, start, text.length());
+        literals.add(literal.toString());
+        literalLength += literal.length();
+
+        return new MessageTemplate(text, literals.toArray(new String[0]),
+                placeholders.toArray(new String[0]), literalLength);
+    }
+
+    /**
+     * Ищет конец плейсхолдера, начинающегося в позиции open
+     *
+     * @return Позиция '}' или -1, если это не плейсхолдер
+     */
+    private static int placeholderEnd(String text, int open) {
+        int i = open + 1;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            if (c == '}') {
+                return i > open + 1 ? i : -1;
+            }
+            if (!(Character.isLetterOrDigit(c) || c == '_' || c == '-' || c == '.')) {
+                return -1;
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    /**
+     * Заполняет шаблон значениями
+     *
+     * @param values Пары плейсхолдер - значение, например "{player}", name.
+     *               Плейсхолдеры без значения остаются в тексте как есть
+     * @return Готовое сообщение
+     */
+    public String render(String... values) {
+        if (values.length % 2 != 0) {
+            throw new IllegalArgumentException("Placeholders must be in pairs (key, value)");
+        }
+        if (placeholders.length == 0) {
+            return text;
+        }
+
+        StringBuilder builder = new StringBuilder(literalLength + placeholders.length * VALUE_SIZE_HINT);
+        for (int i = 0; i < placeholders.length; i++) {
+            builder.append(literals[i]);
+            String placeholder = placeholders[i];
+            String value = placeholder;
+            for (int j = 0; j < values.length; j += 2) {
+                if (placeholder.equals(values[j])) {
+                    value = values[j + 1];
+                    break;
+                }
+            }
+            builder.append(value);
+        }
+        return builder.append(literals[placeholders.length]).toString();
+    }
+
+    /**
+     * Заполняет шаблон значениями и преобразует результат в Adventure Component.
+     * Для шаблонов без плейсхолдеров компонент собирается один раз
+     *
+     * @param values Пары плейсхолдер - значение
+     * @return Компонент
+     */
+    public Component toComponent(String... values) {
+        if (placeholders.length > 0) {
+            return ChatUtils.colorizeComponent(render(values));
+        }
+        Component cached = component;
+        if (cached == null) {
+            cached = ChatUtils.colorizeComponent(text);
+            component = cached;
+        }
+        return cached;
+    }
+
+    /**
+     * Возвращает шаблон с префиксом перед текстом. Результат запоминается,
+     * поэтому при повторных вызовах с тем же префиксом шаблон не пересобирается
+     *
+     * @param prefix Шаблон префикса
+     * @return Шаблон вида префикс + текст
+     */
+    public MessageTemplate withPrefix(MessageTemplate prefix) {
+        Prefixed cached = prefixed;
+        if (cached == null || cached.prefix != prefix) {
+            // Префикс добавляется как готовый текст: плейсхолдеры в нем не заполняются
+            String[] joined = literals.clone();
+            joined[0] = prefix.text + joined[0];
+            cached = new Prefixed(prefix, new MessageTemplate(prefix.text + text, joined, placeholders,
+                    literalLength + prefix.text.length()));
+            prefixed = cached;
+        }
+        return cached.template;
+    }
+
+    /**
+     * @return Раскрашенный текст шаблона с плейсхолдерами
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * @return true, если в шаблоне нет плейсхолдеров
+     */
+    public boolean isConstant() {
+        return placeholders.length == 0;
+    }
+
+    private static final class Prefixed {
+        private final MessageTemplate prefix;
+        private final MessageTemplate template;
+
+        private Prefixed(MessageTemplate prefix, MessageTemplate template) {
+            this.prefix = prefix;
+            this.template = template;
+        }
+    }
+}
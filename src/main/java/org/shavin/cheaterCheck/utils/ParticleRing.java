@@ -0,0 +1,100 @@
+package org.shavin.cheaterCheck.utils;
+
+import org.bukkit.Location;
+import org.bukkit.Particle;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import java.util.List;
+
+/**
+ * Кольцо частиц вокруг замороженного игрока.
+ * Тип частиц и смещения точек для всех кадров анимации (вращение, пульсация)
+ * вычисляются один раз при загрузке конфигурации, при отрисовке остается только сложение координат.
+ */
+public class ParticleRing {
+    private final Particle particle;
+    private final double[][] offsetX;
+    private final double[][] offsetZ;
+    private final double height;
+    private final double viewDistanceSquared;
+    private int frame;
+
+    /**
+     * @param particle Тип частиц
+     * @param points Количество точек в кольце
+     * @param radius Радиус кольца
+     * @param height Высота кольца над ногами игрока
+     * @param frames Количество кадров анимации
+     * @param rotationDegrees Поворот кольца за кадр в градусах
+     * @param pulse Амплитуда изменения радиуса за цикл кадров
+     * @param viewDistance Расстояние, в пределах которого игроки видят частицы
+     */
+    public ParticleRing(Particle particle, int points, double radius, double height,
+                        int frames, double rotationDegrees, double pulse, double viewDistance) {
+        int pointCount = Math.max(1, points);
+        int frameCount = Math.max(1, frames);
+
+        this.particle = particle;
+        this.height = height;
+        this.viewDistanceSquared = viewDistance * viewDistance;
+        this.offsetX = new double[frameCount][pointCount];
+        this.offsetZ = new double[frameCount][pointCount];
+
+        double step = Math.PI * 2 / pointCount;
+        double rotationStep = Math.toRadians(rotationDegrees);
+        for (int f = 0; f < frameCount; f++) {
+            double frameRadius = radius + pulse * Math.sin(Math.PI * 2 * f / frameCount);
+            double rotation = rotationStep * f;
+            for (int p = 0; p < pointCount; p++) {
+                double angle = rotation + step * p;
+                offsetX[f][p] = Math.cos(angle) * frameRadius;
+                offsetZ[f][p] = Math.sin(angle) * frameRadius;
+            }
+        }
+    }
+
+    /**
+     * Переходит к следующему кадру анимации
+     */
+    public void nextFrame() {
+        frame = frame + 1 < offsetX.length ? frame + 1 : 0;
+    }
+
+    /**
+     * Отображает кольцо вокруг указанной точки игрокам, находящимся в пределах видимости
+     *
+     * @param center Позиция игрока
+     */
+    public void render(Location center) {
+        World world = center.getWorld();
+        if (world == null) {
+            return;
+        }
+
+        double centerX = center.getX();
+        double y = center.getY() + height;
+        double centerZ = center.getZ();
+        double[] xs = offsetX[frame];
+        double[] zs = offsetZ[frame];
+
+        List<Player> players = world.getPlayers();
+        for (int i = 0, size = players.size(); i < size; i++) {
+            Player viewer = players.get(i);
+            Location viewerLocation = viewer.getLocation();
+            double dx = viewerLocation.getX() - centerX;
+            double dz = viewerLocation.getZ() - centerZ;
+            if (dx * dx + dz * dz > viewDistanceSquared) {
+                continue;
+            }
+
+            for (int p = 0; p < xs.length; p++) {
+                viewer.spawnParticle(particle, centerX + xs[p], y, centerZ + zs[p], 1, 0, 0, 0, 0);
+            }
+        }
+    }
+
+    public Particle getParticle() {
+        return particle;
+    }
+}
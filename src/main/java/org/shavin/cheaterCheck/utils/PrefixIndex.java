@@ -0,0 +1,201 @@
+package org.shavin.cheaterCheck.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Predicate;
+
+/**
+ * Неизменяемый индекс имен для автодополнения без учета регистра.
+ * Имена хранятся отсортированными по ключу в нижнем регистре, поэтому все совпадения
+ * с префиксом образуют непрерывный диапазон, который находится двоичным поиском.
+ * Запрос стоит O(длина префикса * log n + число результатов) и выделяет только список результатов.
+ * Изменения создают новый экземпляр, поэтому индекс можно публиковать через volatile
+ */
+public final class PrefixIndex {
+    private static final PrefixIndex EMPTY = new PrefixIndex(new String[0], new String[0]);
+
+    // keys[i] - names[i] в нижнем регистре, массивы отсортированы по keys
+    private final String[] keys;
+    private final String[] names;
+
+    private PrefixIndex(String[] keys, String[] names) {
+        this.keys = keys;
+        this.names = names;
+    }
+
+    /**
+     * @return Пустой индекс
+     */
+    public static PrefixIndex empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Строит индекс из набора имен. Имена, совпадающие без учета регистра, хранятся один раз
+     *
+     * @param names Имена
+     * @return Индекс
+     */
+    public static PrefixIndex of(Collection<String> names) {
+        String[] sorted = names.toArray(new String[0]);
+        Arrays.sort(sorted, String.CASE_INSENSITIVE_ORDER);
+
+        List<String> keys = new ArrayList<>(sorted.length);
+        List<String> unique = new ArrayList<>(sorted.length);
+        for (String name : sorted) {
+            String key = normalize(name);
+            if (keys.isEmpty() || !keys.get(keys.size() - 1).equals(key)) {
+                keys.add(key);
+                unique.add(name);
+            }
+        }
+        if (keys.isEmpty()) {
+            return EMPTY;
+        }
+        return new PrefixIndex(keys.toArray(new String[0]), unique.toArray(new String[0]));
+    }
+
+    /**
+     * Возвращает индекс с добавленным именем (или замененным написанием существующего)
+     *
+     * @param name Имя
+     * @return Новый индекс или этот же, если ничего не изменилось
+     */
+    public PrefixIndex with(String name) {
+        String key = normalize(name);
+        int position = Arrays.binarySearch(keys, key);
+        if (position >= 0) {
+            if (names[position].equals(name)) {
+                return this;
+            }
+            String[] updatedNames = names.clone();
+            updatedNames[position] = name;
+            return new PrefixIndex(keys, updatedNames);
+        }
+
+        int insertAt = -position - 1;
+        String[] updatedKeys = new String[keys.length + 1];
+        String[] updatedNames = new String[names.length + 1];
+        System.arraycopy(keys, 0, updatedKeys, 0, insertAt);
+        System.arraycopy(names, 0, updatedNames, 0, insertAt);
+        updatedKeys[insertAt] = key;
+        updatedNames[insertAt] = name;
+        System.arraycopy(keys, insertAt, updatedKeys, insertAt + 1, keys.length - insertAt);
+        System.arraycopy(names, insertAt, updatedNames, insertAt + 1, names.length - insertAt);
+        return new PrefixIndex(updatedKeys, updatedNames);
+    }
+
+    /**
+     * Возвращает индекс без указанного имени
+     *
+     * @param name Имя (регистр не важен)
+     * @return Новый индекс или этот же, если имени не было
+     */
+    public PrefixIndex without(String name) {
+        int position = Arrays.binarySearch(keys, normalize(name));
+        if (position < 0) {
+            return this;
+        }
+        if (keys.length == 1) {
+            return EMPTY;
+        }
+
+        String[] updatedKeys = new String[keys.length - 1];
+        String[] updatedNames = new String[names.length - 1];
+        System.arraycopy(keys, 0, updatedKeys, 0, position);
+        System.arraycopy(names, 0, updatedNames, 0, position);
+        System.arraycopy(keys, position + 1, updatedKeys, position, keys.length - position - 1);
+        System.arraycopy(names, position + 1, updatedNames, position, names.length - position - 1);
+        return new PrefixIndex(updatedKeys, updatedNames);
+    }
+
+    /**
+     * Находит имена, начинающиеся с префикса без учета регистра
+     *
+     * @param prefix Префикс
+     * @return Совпадения в алфавитном порядке
+     */
+    public List<String> complete(String prefix) {
+        return complete(prefix, null);
+    }
+
+    /**
+     * Находит имена, начинающиеся с префикса без учета регистра
+     *
+     * @param prefix Префикс
+     * @param exclude Исключает имена по ключу в нижнем регистре (может быть null)
+     * @return Совпадения в алфавитном порядке
+     */
+    public List<String> complete(String prefix, Predicate<String> exclude) {
+        int from = lowerBound(prefix);
+        int to = from;
+        while (to < keys.length && keys[to].regionMatches(true, 0, prefix, 0, prefix.length())) {
+            to++;
+        }
+        if (from == to) {
+            return new ArrayList<>(0);
+        }
+
+        List<String> result = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            if (exclude == null || !exclude.test(keys[i])) {
+                result.add(names[i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return Все имена в алфавитном порядке (неизменяемый список)
+     */
+    public List<String> getNames() {
+        return Collections.unmodifiableList(Arrays.asList(names));
+    }
+
+    /**
+     * @return Количество имен
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * Первая позиция, ключ в которой не меньше префикса (без учета регистра)
+     */
+    private int lowerBound(String prefix) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (compareIgnoreCase(keys[middle], prefix) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Сравнивает ключ с префиксом посимвольно в нижнем регистре, не создавая копию префикса
+     */
+    private static int compareIgnoreCase(String key, String prefix) {
+        int length = Math.min(key.length(), prefix.length());
+        for (int i = 0; i < length; i++) {
+            char a = key.charAt(i);
+            char b = Character.toLowerCase(Character.toUpperCase(prefix.charAt(i)));
+            if (a != b) {
+                return a - b;
+            }
+        }
+        return key.length() - prefix.length();
+    }
+
+    private static String normalize(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
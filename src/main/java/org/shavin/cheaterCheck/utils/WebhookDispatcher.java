@@ -0,0 +1,631 @@
+package org.shavin.cheaterCheck.utils;
+
+import org.shavin.cheaterCheck.CheaterCheck;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Диспетчер отправки вебхуков Discord.
+ * Сообщения сначала записываются в журнал на диске ({@link WebhookOutbox}), а затем
+ * отправляются одним выделенным потоком в порядке записи: до 10 embed-объектов (не длиннее 6000 символов) объединяются
+ * в один запрос, лимиты Discord (X-RateLimit-*, Retry-After) учитываются отдельно для каждого URL
+ * без блокировки потоков - отправка просто откладывается. В памяти держится не больше
+ * {@code queue-size} сообщений, остальные ждут в журнале, поэтому при длительной недоступности
+ * Discord память не растет, а сообщения не теряются. Если журнал недоступен, сообщения сверх
+ * {@code queue-size} сразу сохраняются в файл недоставленных сообщений (или в лог сервера).
+ * Сами запросы выполняются асинхронно через {@link WebhookTransport}, по одному одновременно на URL.
+ */
+public class WebhookDispatcher {
+    private static final int MAX_EMBEDS_PER_MESSAGE = 10;
+    // Discord отклоняет сообщение (400), если суммарный текст embed-объектов длиннее 6000 символов
+    private static final int MAX_EMBED_LENGTH_PER_MESSAGE = 6000;
+    // Только для сообщений, которые не удалось записать в журнал
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long RETRY_DELAY_MILLIS = 2000L;
+    private static final long MAX_RETRY_DELAY_MILLIS = 60000L;
+
+    private final CheaterCheck plugin;
+    private final WebhookTransport transport;
+    private final WebhookOutbox outbox;
+    private final int capacity;
+    private final ScheduledThreadPoolExecutor executor;
+    private final ConcurrentLinkedQueue<PendingWebhook> incoming = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean drainRequested = new AtomicBoolean();
+    private volatile boolean shutdown;
+
+    // Используются только потоком диспетчера
+    private final Map<String, WebhookRoute> routes = new HashMap<>();
+    private final ArrayDeque<PendingWebhook> window = new ArrayDeque<>();
+    // Сообщения, которые не удалось записать в журнал и которые ждут отправки только в памяти
+    private int memoryOnly;
+    private final JsonWriter jsonWriter = new JsonWriter(4096);
+    // Единственный таймер следующего пробуждения, пока какой-либо URL ограничен лимитом
+    private ScheduledFuture<?> wakeUpTask;
+    private long wakeUpAt;
+
+    // Метрики
+    private final AtomicInteger depth = new AtomicInteger();
+    private final AtomicLong sentCount = new AtomicLong();
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong spilledCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong rateLimitedCount = new AtomicLong();
+    private final AtomicLong totalLatencyMillis = new AtomicLong();
+    private final AtomicLong maxLatencyMillis = new AtomicLong();
+
+    public WebhookDispatcher(CheaterCheck plugin, WebhookTransport transport, int capacity) {
+        this.plugin = plugin;
+        this.transport = transport;
+        this.capacity = Math.max(1, capacity);
+        this.executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "CheaterCheck-Webhook");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Отложенные повторы не должны задерживать выключение сервера
+        this.executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        // Замененный более ранним таймер сразу удаляется из очереди исполнителя
+        this.executor.setRemoveOnCancelPolicy(true);
+        this.outbox = openOutbox();
+
+        if (outbox != null && outbox.getBacklog() > 0) {
+            plugin.getLogger().info("В журнале вебхуков " + outbox.getBacklog() + " недоставленных сообщений, они будут отправлены повторно");
+            requestDrain();
+        }
+    }
+
+    private WebhookOutbox openOutbox() {
+        try {
+            return new WebhookOutbox(plugin, new File(plugin.getDataFolder(), "outbox"));
+        } catch (IOException e) {
+            plugin.getLogger().severe("Не удалось открыть журнал вебхуков, сообщения будут храниться только в памяти: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Ставит вебхук в очередь на отправку. Сообщение не отбрасывается: до записи в журнал
+     * оно ждет в памяти только до ближайшего прохода диспетчера
+     *
+     * @param webhook Вебхук
+     * @return Future, завершающийся после записи сообщения в журнал на диске
+     *         (или после доставки, если журнал недоступен)
+     */
+    public CompletableFuture<Void> submit(DiscordWebhook webhook) {
+        return submit(WebhookMessage.of(webhook));
+    }
+
+    /**
+     * Ставит готовое сообщение в очередь на отправку
+     *
+     * @param message Сообщение
+     * @return Future, завершающийся после записи сообщения в журнал на диске
+     *         (или после доставки, если журнал недоступен)
+     */
+    public CompletableFuture<Void> submit(WebhookMessage message) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        if (shutdown) {
+            future.completeExceptionally(new IllegalStateException("Диспетчер вебхуков остановлен"));
+            return future;
+        }
+
+        depth.incrementAndGet();
+        incoming.add(new PendingWebhook(message, future, null));
+        requestDrain();
+        return future;
+    }
+
+    /**
+     * Останавливает диспетчер, давая ему немного времени на запись и отправку уже поставленных сообщений.
+     * Сообщения из журнала, которые не успели отправить, будут отправлены при следующем запуске,
+     * а неотправленные сообщения без журнала сохраняются в файл недоставленных сообщений.
+     * Транспорт не закрывается - им владеет плагин
+     */
+    public void shutdown() {
+        shutdown = true;
+        long deadline = System.currentTimeMillis() + 5000L;
+        try {
+            while (depth.get() > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50L);
+            }
+            // Без прерывания потока: прерывание закрыло бы каналы журнала посреди записи
+            executor.shutdown();
+            if (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+                plugin.getLogger().warning("Поток отправки вебхуков не завершился вовремя");
+                return;
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        // Поток диспетчера завершен: сообщения без журнала, не успевшие уйти, сохраняем, а не теряем
+        for (WebhookRoute route : routes.values()) {
+            for (PendingWebhook pending : route.queue) {
+                if (pending.record == null) {
+                    saveFailed(pending.message);
+                }
+            }
+        }
+        PendingWebhook pending;
+        while ((pending = incoming.poll()) != null) {
+            saveFailed(pending.message);
+        }
+
+        if (outbox != null) {
+            outbox.close();
+        }
+    }
+
+    private void requestDrain() {
+        if (drainRequested.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::drain);
+            } catch (Exception e) {
+                drainRequested.set(false);
+            }
+        }
+    }
+
+    /**
+     * Записывает новые сообщения в журнал и отправляет по одному пакету для каждого URL,
+     * который не ограничен лимитами и не ждет ответа на предыдущий запрос.
+     * Выполняется только потоком диспетчера
+     */
+    private void drain() {
+        drainRequested.set(false);
+        acceptIncoming();
+        fillWindow();
+
+        long nextWakeUp = Long.MAX_VALUE;
+        long now = System.currentTimeMillis();
+        for (WebhookRoute route : routes.values()) {
+            // Один запрос на URL одновременно: сохраняется порядок сообщений и корректный учет лимитов
+            if (route.inFlight || route.queue.isEmpty()) {
+                continue;
+            }
+            if (now < route.blockedUntil) {
+                nextWakeUp = Math.min(nextWakeUp, route.blockedUntil);
+                continue;
+            }
+            send(route, route.takeBatch());
+        }
+
+        if (outbox != null) {
+            try {
+                outbox.checkpoint();
+            } catch (IOException e) {
+                plugin.getLogger().warning("Не удалось сохранить позицию журнала вебхуков: " + e.getMessage());
+            }
+        }
+
+        if (nextWakeUp != Long.MAX_VALUE) {
+            scheduleWakeUp(nextWakeUp);
+        }
+    }
+
+    /**
+     * Планирует пробуждение диспетчера к указанному времени. Уже запланированное пробуждение
+     * заменяется только более ранним, поэтому при любом трафике живет не больше одного таймера
+     */
+    private void scheduleWakeUp(long at) {
+        if (wakeUpTask != null) {
+            if (wakeUpAt <= at) {
+                return;
+            }
+            wakeUpTask.cancel(false);
+        }
+        if (executor.isShutdown()) {
+            return;
+        }
+        wakeUpAt = at;
+        wakeUpTask = executor.schedule(this::wakeUp, Math.max(1L, at - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+    }
+
+    private void wakeUp() {
+        wakeUpTask = null;
+        drain();
+    }
+
+    /**
+     * Переносит новые сообщения в журнал. Все записи пачки сбрасываются на диск одним fsync
+     */
+    private void acceptIncoming() {
+        List<PendingWebhook> persisted = new ArrayList<>();
+        PendingWebhook pending;
+        while ((pending = incoming.poll()) != null) {
+            if (outbox != null) {
+                try {
+                    outbox.append(pending.message.toBytes());
+                    persisted.add(pending);
+                    continue;
+                } catch (IOException e) {
+                    plugin.getLogger().severe("Не удалось записать вебхук в журнал, сообщение будет отправлено без сохранения на диск: " + e.getMessage());
+                }
+            }
+            if (memoryOnly >= capacity) {
+                // Память для сообщений без журнала исчерпана: сохраняем запись, не отправляя
+                long spilled = spilledCount.incrementAndGet();
+                // Не заспамливаем лог при длительной перегрузке
+                if (spilled == 1 || spilled % 100 == 0) {
+                    plugin.getLogger().warning("Очередь вебхуков Discord без журнала переполнена (" + capacity +
+                            "), сохранено без отправки: " + spilled);
+                }
+                saveFailed(pending.message);
+                depth.decrementAndGet();
+                pending.future.completeExceptionally(new IllegalStateException("Очередь вебхуков переполнена, сообщение сохранено без отправки"));
+                continue;
+            }
+            // Без журнала сообщение остается в памяти до доставки
+            memoryOnly++;
+            route(pending.message.getUrl()).queue.addLast(pending);
+        }
+
+        if (persisted.isEmpty()) {
+            return;
+        }
+        try {
+            outbox.sync();
+        } catch (IOException e) {
+            plugin.getLogger().severe("Ошибка при сохранении журнала вебхуков на диск: " + e.getMessage());
+        }
+        for (PendingWebhook accepted : persisted) {
+            depth.decrementAndGet();
+            accepted.future.complete(null);
+        }
+    }
+
+    /**
+     * Загружает из журнала следующие сообщения, пока в памяти есть место
+     */
+    private void fillWindow() {
+        if (outbox == null) {
+            return;
+        }
+
+        try {
+            WebhookOutbox.Record record;
+            while (window.size() < capacity && (record = outbox.next()) != null) {
+                PendingWebhook pending;
+                try {
+                    pending = new PendingWebhook(WebhookMessage.fromBytes(record.getPayload()), null, record);
+                } catch (IOException e) {
+                    plugin.getLogger().severe("Пропущена нечитаемая запись журнала вебхуков: " + e.getMessage());
+                    pending = new PendingWebhook(null, null, record);
+                    pending.done = true;
+                    window.addLast(pending);
+                    continue;
+                }
+                window.addLast(pending);
+                route(pending.message.getUrl()).queue.addLast(pending);
+            }
+        } catch (IOException e) {
+            plugin.getLogger().severe("Ошибка при чтении журнала вебхуков: " + e.getMessage());
+        }
+        advanceCursor();
+    }
+
+    /**
+     * Сдвигает позицию журнала на все доставленные подряд сообщения
+     */
+    private void advanceCursor() {
+        while (!window.isEmpty() && window.peekFirst().done) {
+            outbox.commit(window.pollFirst().record);
+        }
+    }
+
+    private WebhookRoute route(String url) {
+        return routes.computeIfAbsent(url, WebhookRoute::new);
+    }
+
+    /**
+     * Отправляет пакет сообщений одним запросом. Ответ обрабатывается в потоке диспетчера
+     */
+    private void send(WebhookRoute route, List<PendingWebhook> batch) {
+        WebhookMessage head = batch.get(0).message;
+        List<byte[]> embeds = new ArrayList<>();
+        for (PendingWebhook pending : batch) {
+            embeds.addAll(pending.message.getEmbeds());
+        }
+        // Буфер писателя переиспользуется, в запрос уходит только копия итоговых байт
+        byte[] body = head.writeJson(jsonWriter.reset(), embeds).toByteArray();
+
+        route.inFlight = true;
+        requestCount.incrementAndGet();
+        transport.post(route.url, body).whenCompleteAsync((response, error) -> {
+            route.inFlight = false;
+            boolean done = error == null
+                    ? handleResponse(route, batch, response)
+                    : handleFailure(route, batch, "Ошибка при отправке вебхука в Discord: " + describe(error),
+                            isPermanent(error));
+            if (!done) {
+                // Возвращаем пакет в начало очереди с сохранением порядка
+                for (int i = batch.size() - 1; i >= 0; i--) {
+                    route.queue.addFirst(batch.get(i));
+                }
+            }
+            requestDrain();
+        }, executor);
+    }
+
+    /**
+     * Обрабатывает ответ Discord
+     *
+     * @return false, если пакет нужно повторить позже
+     */
+    private boolean handleResponse(WebhookRoute route, List<PendingWebhook> batch, WebhookResponse response) {
+        long now = System.currentTimeMillis();
+        if (response.getRemaining() == 0 && response.getResetAfterMillis() > 0) {
+            route.blockedUntil = now + response.getResetAfterMillis();
+        }
+
+        int status = response.getStatus();
+        if (status == 429) {
+            rateLimitedCount.incrementAndGet();
+            long retryAfter = response.getRetryAfterMillis() > 0 ? response.getRetryAfterMillis() : 5000L;
+            route.blockedUntil = now + retryAfter;
+            plugin.getLogger().warning("Достигнут лимит запросов к вебхуку. Повторная попытка через " + retryAfter + " мс.");
+            return false;
+        }
+
+        if (status >= 500) {
+            return handleFailure(route, batch, "Ошибка при отправке вебхука в Discord. Код ответа: " + status, false);
+        }
+
+        if (status >= 400 && status < 500 && batch.size() > 1) {
+            // Объединенный пакет отклонен целиком: отправляем сообщения по одному,
+            // чтобы ошибка одного не потеряла остальные
+            plugin.getLogger().warning("Discord отклонил объединенный пакет вебхуков (код " + status
+                    + "), сообщения будут отправлены по одному");
+            for (PendingWebhook pending : batch) {
+                pending.single = true;
+            }
+            return false;
+        }
+
+        if (status < 200 || status >= 300) {
+            // Ошибка клиента (неверный URL, слишком большой embed) - повтор не поможет
+            plugin.getLogger().severe("Ошибка при отправке вебхука в Discord. Код ответа: " + status);
+            complete(batch, new IOException("Код ответа Discord: " + status));
+            return true;
+        }
+
+        complete(batch, null);
+        return true;
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private static String describe(Throwable error) {
+        Throwable cause = unwrap(error);
+        return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+    }
+
+    /**
+     * Ошибки, не связанные с вводом-выводом (например, некорректный URL), повтором не исправить
+     */
+    private static boolean isPermanent(Throwable error) {
+        return !(unwrap(error) instanceof IOException);
+    }
+
+    /**
+     * Обрабатывает ошибку отправки. Временные ошибки (5xx, ошибки сети) повторяются с растущей
+     * задержкой: сообщения из журнала - до восстановления Discord, в исходном порядке, сообщения
+     * только в памяти - не более {@link #MAX_ATTEMPTS} раз. Постоянные ошибки завершают пакет,
+     * а записи журнала сохраняются в файл недоставленных сообщений
+     */
+    private boolean handleFailure(WebhookRoute route, List<PendingWebhook> batch, String message, boolean permanent) {
+        if (permanent) {
+            plugin.getLogger().severe(message);
+            complete(batch, new IOException(message));
+            return true;
+        }
+
+        List<PendingWebhook> expired = new ArrayList<>();
+        int attempts = 0;
+        Iterator<PendingWebhook> iterator = batch.iterator();
+        while (iterator.hasNext()) {
+            PendingWebhook pending = iterator.next();
+            attempts = Math.max(attempts, ++pending.attempts);
+            if (pending.record == null && pending.attempts >= MAX_ATTEMPTS) {
+                iterator.remove();
+                expired.add(pending);
+            }
+        }
+
+        if (!expired.isEmpty()) {
+            plugin.getLogger().severe(message + ". Попытки исчерпаны, сообщений не доставлено: " + expired.size());
+            complete(expired, new IOException(message));
+        }
+        if (batch.isEmpty()) {
+            return true;
+        }
+
+        // Оставшиеся в пакете сообщения повторяются позже
+        long delay = Math.min(MAX_RETRY_DELAY_MILLIS, RETRY_DELAY_MILLIS << Math.min(attempts - 1, 5));
+        plugin.getLogger().warning(message + ". Повторная попытка через " + delay + " мс.");
+        route.blockedUntil = System.currentTimeMillis() + delay;
+        return false;
+    }
+
+    private void complete(List<PendingWebhook> batch, Exception error) {
+        long now = System.currentTimeMillis();
+        for (PendingWebhook pending : batch) {
+            if (error == null) {
+                long latency = now - pending.enqueuedAt;
+                sentCount.incrementAndGet();
+                totalLatencyMillis.addAndGet(latency);
+                maxLatencyMillis.accumulateAndGet(latency, Math::max);
+            } else {
+                failedCount.incrementAndGet();
+                // Discord не примет это сообщение, но запись о модерации сохраняем
+                saveFailed(pending.message);
+            }
+
+            if (pending.record != null) {
+                pending.done = true;
+                continue;
+            }
+
+            memoryOnly--;
+            depth.decrementAndGet();
+            if (error == null) {
+                pending.future.complete(null);
+            } else {
+                pending.future.completeExceptionally(error);
+            }
+        }
+
+        if (outbox != null) {
+            advanceCursor();
+        }
+    }
+
+    /**
+     * Сохраняет недоставленное сообщение в файл недоставленных сообщений журнала,
+     * а если журнал недоступен - в лог сервера
+     */
+    private void saveFailed(WebhookMessage message) {
+        String json = message.writeJson(jsonWriter.reset(), message.getEmbeds()).toString();
+        if (outbox != null) {
+            outbox.writeFailed(json);
+        } else {
+            plugin.getLogger().severe("Недоставленный вебхук: " + json);
+        }
+    }
+
+    /**
+     * @return Количество сообщений, ожидающих отправки (в памяти и в журнале)
+     */
+    public int getQueueDepth() {
+        long backlog = outbox != null ? outbox.getBacklog() : 0L;
+        return (int) Math.min(Integer.MAX_VALUE, depth.get() + backlog);
+    }
+
+    /**
+     * @return Количество сообщений, сохраненных без отправки из-за переполнения памяти при недоступном журнале
+     */
+    public long getSpilledCount() {
+        return spilledCount.get();
+    }
+
+    /**
+     * @return Количество доставленных сообщений
+     */
+    public long getSentCount() {
+        return sentCount.get();
+    }
+
+    /**
+     * @return Количество сообщений, которые не удалось доставить
+     */
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    /**
+     * @return Средняя задержка от постановки в очередь до доставки в миллисекундах
+     */
+    public long getAverageLatencyMillis() {
+        long sent = sentCount.get();
+        return sent == 0 ? 0 : totalLatencyMillis.get() / sent;
+    }
+
+    /**
+     * Возвращает отладочную информацию о работе диспетчера
+     *
+     * @return Строка с отладочной информацией
+     */
+    public String getDebugInfo() {
+        return "=== Discord Webhook Info ===\n" +
+                "В памяти: " + depth.get() + " / " + capacity + "\n" +
+                "В журнале: " + (outbox != null ? String.valueOf(outbox.getBacklog()) : "недоступен") + "\n" +
+                "Доставлено: " + sentCount.get() + " (запросов: " + requestCount.get() + ")\n" +
+                "Сохранено без отправки: " + spilledCount.get() + ", ошибок: " + failedCount.get() + "\n" +
+                "Ответов 429: " + rateLimitedCount.get() + "\n" +
+                "Задержка (мс): средняя " + getAverageLatencyMillis() + ", максимальная " + maxLatencyMillis.get() + "\n";
+    }
+
+    /**
+     * Очередь и состояние лимита для одного URL вебхука. Используется только потоком диспетчера
+     */
+    private static final class WebhookRoute {
+        private final String url;
+        private final ArrayDeque<PendingWebhook> queue = new ArrayDeque<>();
+        private long blockedUntil;
+        private boolean inFlight;
+
+        private WebhookRoute(String url) {
+            this.url = url;
+        }
+
+        /**
+         * Забирает из очереди первое сообщение и следующие за ним совместимые,
+         * не более 10 embed-объектов и 6000 символов текста в сумме
+         */
+        private List<PendingWebhook> takeBatch() {
+            List<PendingWebhook> batch = new ArrayList<>();
+            PendingWebhook head = queue.pollFirst();
+            batch.add(head);
+            if (head.single || !head.message.isMergeable()) {
+                return batch;
+            }
+
+            int embeds = head.message.getEmbeds().size();
+            int length = head.message.getEmbedLength();
+            PendingWebhook next;
+            while ((next = queue.peekFirst()) != null
+                    && !next.single
+                    && head.message.canMergeWith(next.message)
+                    && embeds + next.message.getEmbeds().size() <= MAX_EMBEDS_PER_MESSAGE
+                    && length + next.message.getEmbedLength() <= MAX_EMBED_LENGTH_PER_MESSAGE) {
+                queue.pollFirst();
+                batch.add(next);
+                embeds += next.message.getEmbeds().size();
+                length += next.message.getEmbedLength();
+            }
+            return batch;
+        }
+    }
+
+    private static final class PendingWebhook {
+        private final WebhookMessage message;
+        private final CompletableFuture<Void> future;
+        private final WebhookOutbox.Record record;
+        private final long enqueuedAt = System.currentTimeMillis();
+        private int attempts;
+        private boolean done;
+        // Сообщение отправляется без объединения с другими (после отказа Discord принять пакет)
+        private boolean single;
+
+        /**
+         * @param message Сообщение
+         * @param future Future вызывающего кода или null для сообщений из журнала
+         * @param record Запись журнала или null, если сообщение хранится только в памяти
+         */
+        private PendingWebhook(WebhookMessage message, CompletableFuture<Void> future, WebhookOutbox.Record record) {
+            this.message = message;
+            this.future = future;
+            this.record = record;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package org.shavin.cheaterCheck.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Неизменяемый снимок сообщения вебхука, готовый к отправке или записи в журнал.
+ * Embed-объекты хранятся уже сериализованными в JSON (UTF-8), поэтому сообщение
+ * восстанавливается с диска без пересборки объектов DiscordWebhook
+ */
+public final class WebhookMessage {
+    private static final int FORMAT_VERSION = 1;
+
+    private final String url;
+    private final String username;
+    private final String avatarUrl;
+    private final String content;
+    private final boolean tts;
+    private final List<byte[]> embeds;
+    private final int embedLength;
+
+    private WebhookMessage(String url, String username, String avatarUrl, String content, boolean tts, List<byte[]> embeds) {
+        this.url = url;
+        this.username = username;
+        this.avatarUrl = avatarUrl;
+        this.content = content;
+        this.tts = tts;
+        this.embeds = Collections.unmodifiableList(embeds);
+        this.embedLength = countCharacters(embeds);
+    }
+
+    /**
+     * Оценивает длину embed-объектов сверху: считаются символы всего JSON, а не только текст,
+     * который учитывает Discord, поэтому оценка никогда не бывает меньше настоящей
+     */
+    private static int countCharacters(List<byte[]> embeds) {
+        int length = 0;
+        for (byte[] embed : embeds) {
+            for (byte b : embed) {
+                // Продолжения многобайтовых символов UTF-8 (10xxxxxx) не считаются отдельными символами
+                if ((b & 0xC0) != 0x80) {
+                    length++;
+                }
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Создает снимок вебхука
+     *
+     * @param webhook Вебхук
+     * @return Сообщение
+     */
+    public static WebhookMessage of(DiscordWebhook webhook) {
+        List<byte[]> embeds = new ArrayList<>(webhook.getEmbeds().size());
+        JsonWriter writer = new JsonWriter();
+        for (DiscordWebhook.EmbedObject embed : webhook.getEmbeds()) {
+            embed.writeTo(writer.reset());
+            embeds.add(writer.toByteArray());
+        }
+        return new WebhookMessage(webhook.getUrl(), webhook.getUsername(), webhook.getAvatarUrl(),
+                webhook.getContent(), webhook.isTts(), embeds);
+    }
+
+    /**
+     * Создает сообщение из одного готового embed-объекта
+     *
+     * @param url URL вебхука
+     * @param username Имя отправителя
+     * @param avatarUrl URL аватара
+     * @param embed JSON embed-объекта в UTF-8
+     * @return Сообщение
+     */
+    public static WebhookMessage ofEmbed(String url, String username, String avatarUrl, byte[] embed) {
+        return new WebhookMessage(url, username, avatarUrl, null, false, Collections.singletonList(embed));
+    }
+
+    /**
+     * Восстанавливает сообщение из записи журнала
+     *
+     * @param data Данные, полученные из {@link #toBytes()}
+     * @return Сообщение
+     * @throws IOException Если данные повреждены или записаны в неизвестном формате
+     */
+    public static WebhookMessage fromBytes(byte[] data) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        int version = in.readUnsignedByte();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Неизвестная версия записи вебхука: " + version);
+        }
+
+        String url = readString(in);
+        if (url == null) {
+            throw new IOException("В записи вебхука отсутствует URL");
+        }
+        String username = readString(in);
+        String avatarUrl = readString(in);
+        String content = readString(in);
+        boolean tts = in.readBoolean();
+        int count = in.readInt();
+        if (count < 0 || count > 100) {
+            throw new IOException("Некорректное количество embed-объектов: " + count);
+        }
+        List<byte[]> embeds = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            byte[] embed = readBytes(in);
+            if (embed == null) {
+                throw new IOException("Пустой embed-объект в записи вебхука");
+            }
+            embeds.add(embed);
+        }
+        return new WebhookMessage(url, username, avatarUrl, content, tts, embeds);
+    }
+
+    /**
+     * Сериализует сообщение для записи в журнал
+     *
+     * @return Данные сообщения
+     */
+    public byte[] toBytes() {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(buffer)) {
+            out.writeByte(FORMAT_VERSION);
+            writeString(out, url);
+            writeString(out, username);
+            writeString(out, avatarUrl);
+            writeString(out, content);
+            out.writeBoolean(tts);
+            out.writeInt(embeds.size());
+            for (byte[] embed : embeds) {
+                writeBytes(out, embed);
+            }
+        } catch (IOException e) {
+            // ByteArrayOutputStream не выбрасывает IOException
+            throw new IllegalStateException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Записывает JSON запроса с указанными embed-объектами и настройками этого сообщения
+     *
+     * @param writer Писатель JSON
+     * @param embedJson Embed-объекты в JSON (UTF-8)
+     * @return Переданный писатель
+     */
+    public JsonWriter writeJson(JsonWriter writer, List<byte[]> embedJson) {
+        writer.beginObject()
+                .name("content").value(content)
+                .name("username").value(username)
+                .name("avatar_url").value(avatarUrl)
+                .name("tts").value(tts);
+        if (!embedJson.isEmpty()) {
+            writer.name("embeds").beginArray();
+            for (byte[] embed : embedJson) {
+                writer.rawValue(embed);
+            }
+            writer.endArray();
+        }
+        return writer.endObject();
+    }
+
+    /**
+     * Проверяет, можно ли объединить сообщение с другими в один запрос
+     * (сообщение состоит только из embed-объектов)
+     *
+     * @return true, если сообщение можно объединять
+     */
+    public boolean isMergeable() {
+        return content == null && !tts && !embeds.isEmpty();
+    }
+
+    /**
+     * Проверяет, можно ли добавить embed-объекты другого сообщения в запрос этого сообщения
+     *
+     * @param other Другое сообщение
+     * @return true, если имя и аватар отправителя совпадают и оба сообщения можно объединять
+     */
+    public boolean canMergeWith(WebhookMessage other) {
+        return isMergeable() && other.isMergeable()
+                && Objects.equals(username, other.username)
+                && Objects.equals(avatarUrl, other.avatarUrl);
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public List<byte[]> getEmbeds() {
+        return embeds;
+    }
+
+    /**
+     * @return Оценка сверху суммарной длины текста embed-объектов в символах
+     */
+    public int getEmbedLength() {
+        return embedLength;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        writeBytes(out, value != null ? value.getBytes(StandardCharsets.UTF_8) : null);
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(value.length);
+        out.write(value);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = readBytes(in);
+        return bytes != null ? new String(bytes, StandardCharsets.UTF_8) : null;
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > in.available()) {
+            throw new IOException("Запись вебхука обрезана");
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,408 @@
+package org.shavin.cheaterCheck.utils;
+
+import org.shavin.cheaterCheck.CheaterCheck;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.TreeSet;
+import java.util.zip.CRC32;
+
+/**
+ * Журнал исходящих вебхуков на диске (write-ahead outbox).
+ * Сообщения дописываются в сегменты {@code <номер>.seg} в папке {@code outbox},
+ * каждая запись - длина, CRC32 и данные {@link WebhookMessage}. Позиция первого
+ * недоставленного сообщения хранится в файле {@code cursor}, полностью доставленные
+ * сегменты удаляются. При запуске поврежденный хвост последнего сегмента обрезается,
+ * а недоставленные сообщения отправляются заново в исходном порядке.
+ * Не потокобезопасен: используется только потоком диспетчера вебхуков.
+ */
+public class WebhookOutbox {
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final int HEADER_SIZE = 8;
+    private static final int MAX_RECORD_SIZE = 1 << 20;
+    private static final long SEGMENT_SIZE = 4L << 20;
+
+    private final CheaterCheck plugin;
+    private final Path directory;
+    private final Path cursorFile;
+    private final Path failedFile;
+    private final TreeSet<Long> segments = new TreeSet<>();
+    private final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+
+    // Запись
+    private long writeSegment;
+    private long writeOffset;
+    private FileChannel writeChannel;
+    private boolean unsynced;
+
+    // Чтение
+    private long readSegment;
+    private long readOffset;
+    private FileChannel readChannel;
+
+    // Позиция первого недоставленного сообщения
+    private long cursorSegment;
+    private long cursorOffset;
+    private boolean cursorDirty;
+
+    private volatile long backlog;
+
+    /**
+     * Открывает журнал, восстанавливая его после возможного аварийного завершения
+     *
+     * @param plugin Экземпляр плагина
+     * @param directory Папка журнала
+     * @throws IOException Если журнал не удалось открыть
+     */
+    public WebhookOutbox(CheaterCheck plugin, File directory) throws IOException {
+        this.plugin = plugin;
+        this.directory = directory.toPath();
+        this.cursorFile = this.directory.resolve("cursor");
+        this.failedFile = this.directory.resolve("failed.jsonl");
+        Files.createDirectories(this.directory);
+
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(SEGMENT_SUFFIX));
+        if (files != null) {
+            for (File file : files) {
+                String name = file.getName();
+                try {
+                    segments.add(Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())));
+                } catch (NumberFormatException e) {
+                    plugin.getLogger().warning("Пропущен посторонний файл в журнале вебхуков: " + name);
+                }
+            }
+        }
+
+        readCursor();
+        if (segments.isEmpty()) {
+            // Новый сегмент всегда начинается после курсора, чтобы старая позиция не указывала внутрь него
+            segments.add(Files.exists(cursorFile) ? cursorSegment + 1 : 1L);
+        }
+
+        writeSegment = segments.last();
+        writeChannel = FileChannel.open(segmentPath(writeSegment),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        writeOffset = recoverTail();
+
+        // Курсор указывает на удаленный или еще не созданный сегмент - начинаем с ближайшего существующего
+        if (!segments.contains(cursorSegment)) {
+            Long next = segments.ceiling(cursorSegment);
+            cursorSegment = next != null ? next : writeSegment;
+            cursorOffset = next != null ? 0L : writeOffset;
+            cursorDirty = true;
+        } else if (cursorSegment == writeSegment && cursorOffset > writeOffset) {
+            cursorOffset = writeOffset;
+            cursorDirty = true;
+        }
+
+        // Считаем недоставленные сообщения и возвращаем чтение на курсор
+        seekToCursor();
+        while (next() != null) {
+            backlog++;
+        }
+        seekToCursor();
+    }
+
+    /**
+     * Дописывает сообщение в конец журнала. Данные попадают на диск после {@link #sync()}
+     *
+     * @param payload Данные сообщения
+     * @throws IOException Если запись не удалась
+     */
+    public void append(byte[] payload) throws IOException {
+        if (payload.length > MAX_RECORD_SIZE) {
+            throw new IOException("Сообщение вебхука слишком большое: " + payload.length + " байт");
+        }
+
+        if (writeOffset > 0 && writeOffset + HEADER_SIZE + payload.length > SEGMENT_SIZE) {
+            rollSegment();
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(payload, 0, payload.length);
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + payload.length);
+        buffer.putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+
+        long position = writeOffset;
+        while (buffer.hasRemaining()) {
+            position += writeChannel.write(buffer, position);
+        }
+        writeOffset = position;
+        unsynced = true;
+        backlog++;
+    }
+
+    /**
+     * Сбрасывает дописанные сообщения на диск. Вызывается один раз на пачку записей
+     *
+     * @throws IOException Если сброс не удался
+     */
+    public void sync() throws IOException {
+        if (unsynced) {
+            writeChannel.force(false);
+            unsynced = false;
+        }
+    }
+
+    /**
+     * Читает следующее еще не прочитанное сообщение
+     *
+     * @return Запись или null, если непрочитанных сообщений нет
+     * @throws IOException Если чтение не удалось
+     */
+    public Record next() throws IOException {
+        while (true) {
+            if (readChannel == null) {
+                readChannel = readSegment == writeSegment ? writeChannel : FileChannel.open(segmentPath(readSegment), StandardOpenOption.READ);
+            }
+
+            long limit = readSegment == writeSegment ? writeOffset : readChannel.size();
+            if (readOffset + HEADER_SIZE <= limit) {
+                byte[] payload = readRecord(readChannel, readOffset, limit);
+                if (payload != null) {
+                    readOffset += HEADER_SIZE + payload.length;
+                    return new Record(readSegment, readOffset, payload);
+                }
+                // Хвост последнего сегмента проверяется при открытии, здесь возможна только порча старого сегмента
+                plugin.getLogger().severe("Сегмент журнала вебхуков " + readSegment + " поврежден с позиции " + readOffset +
+                        ", оставшиеся в нем сообщения пропущены");
+                if (readSegment == writeSegment) {
+                    readOffset = limit;
+                    return null;
+                }
+            }
+
+            if (readSegment == writeSegment) {
+                return null;
+            }
+
+            closeReadChannel();
+            Long following = segments.higher(readSegment);
+            readSegment = following != null ? following : writeSegment;
+            readOffset = 0L;
+        }
+    }
+
+    /**
+     * Отмечает сообщение и все предыдущие как доставленные
+     *
+     * @param record Последнее доставленное сообщение
+     */
+    public void commit(Record record) {
+        cursorSegment = record.getEndSegment();
+        cursorOffset = record.getEndOffset();
+        cursorDirty = true;
+        backlog = Math.max(0L, backlog - 1);
+    }
+
+    /**
+     * Сохраняет позицию доставки и удаляет полностью доставленные сегменты
+     *
+     * @throws IOException Если позицию не удалось сохранить
+     */
+    public void checkpoint() throws IOException {
+        if (!cursorDirty) {
+            return;
+        }
+
+        Path temp = directory.resolve("cursor.tmp");
+        Files.write(temp, (cursorSegment + " " + cursorOffset).getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE, StandardOpenOption.SYNC);
+        try {
+            Files.move(temp, cursorFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, cursorFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+        cursorDirty = false;
+
+        // Курсор уже на диске, поэтому сегменты до него больше не понадобятся даже после сбоя
+        while (!segments.isEmpty() && segments.first() < cursorSegment && segments.first() != readSegment) {
+            long segment = segments.pollFirst();
+            Files.deleteIfExists(segmentPath(segment));
+        }
+    }
+
+    /**
+     * Сохраняет сообщение, которое Discord отказался принимать, в отдельный файл,
+     * чтобы запись о модерации не была потеряна
+     *
+     * @param json JSON запроса
+     */
+    public void writeFailed(String json) {
+        try {
+            Files.write(failedFile, (json + System.lineSeparator()).getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            plugin.getLogger().severe("Не удалось сохранить недоставленный вебхук: " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return Количество сообщений в журнале, еще не доставленных в Discord
+     */
+    public long getBacklog() {
+        return backlog;
+    }
+
+    /**
+     * Сохраняет состояние и закрывает файлы журнала
+     */
+    public void close() {
+        try {
+            sync();
+            checkpoint();
+        } catch (IOException e) {
+            plugin.getLogger().severe("Ошибка при сохранении журнала вебхуков: " + e.getMessage());
+        }
+        closeReadChannel();
+        try {
+            writeChannel.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private void rollSegment() throws IOException {
+        sync();
+        if (readChannel == writeChannel) {
+            // Читатель продолжит этот сегмент через собственный канал
+            readChannel = null;
+        }
+        writeChannel.close();
+
+        writeSegment++;
+        segments.add(writeSegment);
+        writeChannel = FileChannel.open(segmentPath(writeSegment),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        writeOffset = 0L;
+    }
+
+    /**
+     * Находит конец последней целой записи в текущем сегменте и обрезает все, что после нее
+     */
+    private long recoverTail() throws IOException {
+        long size = writeChannel.size();
+        long offset = 0L;
+        byte[] payload;
+        while (offset + HEADER_SIZE <= size && (payload = readRecord(writeChannel, offset, size)) != null) {
+            offset += HEADER_SIZE + payload.length;
+        }
+
+        if (offset < size) {
+            plugin.getLogger().warning("Журнал вебхуков: обрезан незавершенный хвост сегмента " + writeSegment +
+                    " (" + (size - offset) + " байт)");
+            writeChannel.truncate(offset);
+            writeChannel.force(true);
+        }
+        return offset;
+    }
+
+    /**
+     * Читает запись по указанной позиции
+     *
+     * @return Данные записи или null, если запись неполная или повреждена
+     */
+    private byte[] readRecord(FileChannel channel, long offset, long limit) throws IOException {
+        header.clear();
+        if (!readFully(channel, header, offset)) {
+            return null;
+        }
+        header.flip();
+        int length = header.getInt();
+        int checksum = header.getInt();
+        if (length < 0 || length > MAX_RECORD_SIZE || offset + HEADER_SIZE + length > limit) {
+            return null;
+        }
+
+        ByteBuffer body = ByteBuffer.allocate(length);
+        if (!readFully(channel, body, offset + HEADER_SIZE)) {
+            return null;
+        }
+        byte[] payload = body.array();
+        CRC32 crc = new CRC32();
+        crc.update(payload, 0, payload.length);
+        return (int) crc.getValue() == checksum ? payload : null;
+    }
+
+    private static boolean readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                return false;
+            }
+            position += read;
+        }
+        return true;
+    }
+
+    private void readCursor() {
+        cursorSegment = segments.isEmpty() ? 1L : segments.first();
+        cursorOffset = 0L;
+        if (!Files.exists(cursorFile)) {
+            return;
+        }
+
+        try {
+            String[] parts = new String(Files.readAllBytes(cursorFile), StandardCharsets.UTF_8).trim().split(" ");
+            cursorSegment = Long.parseLong(parts[0]);
+            cursorOffset = Long.parseLong(parts[1]);
+        } catch (IOException | RuntimeException e) {
+            // Лучше отправить часть сообщений повторно, чем потерять их
+            plugin.getLogger().warning("Не удалось прочитать позицию журнала вебхуков, сообщения будут отправлены с начала журнала");
+        }
+    }
+
+    private void seekToCursor() {
+        closeReadChannel();
+        readSegment = cursorSegment;
+        readOffset = cursorOffset;
+    }
+
+    private void closeReadChannel() {
+        if (readChannel != null && readChannel != writeChannel) {
+            try {
+                readChannel.close();
+            } catch (IOException ignored) {
+            }
+        }
+        readChannel = null;
+    }
+
+    private Path segmentPath(long segment) {
+        return directory.resolve(String.format("%016d", segment) + SEGMENT_SUFFIX);
+    }
+
+    /**
+     * Прочитанное из журнала сообщение и его позиция
+     */
+    public static final class Record {
+        private final long endSegment;
+        private final long endOffset;
+        private final byte[] payload;
+
+        private Record(long endSegment, long endOffset, byte[] payload) {
+            this.endSegment = endSegment;
+            this.endOffset = endOffset;
+            this.payload = payload;
+        }
+
+        public long getEndSegment() {
+            return endSegment;
+        }
+
+        public long getEndOffset() {
+            return endOffset;
+        }
+
+        public byte[] getPayload() {
+            return payload;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package org.shavin.cheaterCheck.utils;
+
+/**
+ * Ответ Discord на запрос вебхука: код ответа и заголовки лимитов
+ */
+public class WebhookResponse {
+    private final int status;
+    private final long retryAfterMillis;
+    private final int remaining;
+    private final long resetAfterMillis;
+
+    /**
+     * @param status HTTP код ответа
+     * @param retryAfterMillis Значение Retry-After в миллисекундах или -1
+     * @param remaining Значение X-RateLimit-Remaining или -1
+     * @param resetAfterMillis Значение X-RateLimit-Reset-After в миллисекундах или -1
+     */
+    public WebhookResponse(int status, long retryAfterMillis, int remaining, long resetAfterMillis) {
+        this.status = status;
+        this.retryAfterMillis = retryAfterMillis;
+        this.remaining = remaining;
+        this.resetAfterMillis = resetAfterMillis;
+    }
+
+    /**
+     * Создает ответ из значений заголовков
+     *
+     * @param status HTTP код ответа
+     * @param retryAfter Заголовок Retry-After (секунды)
+     * @param remaining Заголовок X-RateLimit-Remaining
+     * @param resetAfter Заголовок X-RateLimit-Reset-After (секунды)
+     * @return Ответ
+     */
+    public static WebhookResponse fromHeaders(int status, String retryAfter, String remaining, String resetAfter) {
+        return new WebhookResponse(status, parseSeconds(retryAfter), parseInt(remaining), parseSeconds(resetAfter));
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
+    }
+
+    public int getRemaining() {
+        return remaining;
+    }
+
+    public long getResetAfterMillis() {
+        return resetAfterMillis;
+    }
+
+    private static long parseSeconds(String value) {
+        if (value == null || value.isEmpty()) {
+            return -1L;
+        }
+        try {
+            return (long) Math.ceil(Double.parseDouble(value) * 1000.0);
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+
+    private static int parseInt(String value) {
+        if (value == null || value.isEmpty()) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package org.shavin.cheaterCheck.utils;
+
+import java.awt.Color;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Скомпилированный шаблон embed-объекта для лога в Discord.
+ * JSON шаблона заранее разбит на неизменяемые фрагменты (уже в UTF-8 и экранированные)
+ * и типизированные слоты, поэтому при отправке события остается только записать фрагменты
+ * в буфер нужного размера и подставить значения слотов.
+ * <p>
+ * В тексте описания и значениях полей поддерживаются плейсхолдеры
+ * {player}, {staff}, {cheat}, {duration}, {details} и {setting}.
+ * Время события подставляется автоматически.
+ */
+public final class WebhookTemplate {
+
+    /**
+     * Слоты, заполняемые при отправке события
+     */
+    public enum Slot {
+        PLAYER,
+        STAFF,
+        CHEAT,
+        DURATION,
+        DETAILS,
+        SETTING,
+        TIMESTAMP
+    }
+
+    private static final Slot[] SLOTS = Slot.values();
+    private static final String EMPTY_VALUE = "-";
+    // Предполагаемая длина значения слота в байтах для выбора размера буфера
+    private static final int SLOT_SIZE_HINT = 48;
+
+    // Элементы - byte[] (готовый фрагмент) или Slot
+    private final Object[] parts;
+    private final int sizeHint;
+
+    private WebhookTemplate(Object[] parts, int sizeHint) {
+        this.parts = parts;
+        this.sizeHint = sizeHint;
+    }
+
+    /**
+     * Создает построитель шаблона
+     *
+     * @param title Заголовок embed-объекта
+     * @param color Цвет embed-объекта
+     * @return Построитель
+     */
+    public static Builder builder(String title, Color color) {
+        return new Builder(title, color);
+    }
+
+    /**
+     * Создает набор значений для заполнения слотов
+     *
+     * @return Значения слотов
+     */
+    public static Values values() {
+        return new Values();
+    }
+
+    /**
+     * Заполняет шаблон значениями
+     *
+     * @param values Значения слотов
+     * @return JSON embed-объекта в UTF-8
+     */
+    public byte[] render(Values values) {
+        JsonWriter writer = new JsonWriter(sizeHint);
+        String timestamp = Instant.now().toString();
+        for (Object part : parts) {
+            if (part instanceof byte[]) {
+                writer.raw((byte[]) part);
+                continue;
+            }
+
+            Slot slot = (Slot) part;
+            String value = slot == Slot.TIMESTAMP ? timestamp : values.values[slot.ordinal()];
+            // Discord отклоняет пустые значения полей
+            writer.escaped(value == null || value.isEmpty() ? EMPTY_VALUE : value);
+        }
+        return writer.toByteArray();
+    }
+
+    /**
+     * Значения слотов одного события
+     */
+    public static final class Values {
+        private final String[] values = new String[SLOTS.length];
+
+        private Values() {
+        }
+
+        public Values set(Slot slot, String value) {
+            values[slot.ordinal()] = value;
+            return this;
+        }
+
+        public Values player(String player) {
+            return set(Slot.PLAYER, player);
+        }
+
+        public Values staff(String staff) {
+            return set(Slot.STAFF, staff);
+        }
+
+        public Values cheat(String cheat) {
+            return set(Slot.CHEAT, cheat);
+        }
+
+        public Values duration(String duration) {
+            return set(Slot.DURATION, duration);
+        }
+
+        public Values details(String details) {
+            return set(Slot.DETAILS, details);
+        }
+
+        public Values setting(String setting) {
+            return set(Slot.SETTING, setting);
+        }
+    }
+
+    /**
+     * Построитель шаблона. Используется только при загрузке конфигурации
+     */
+    public static final class Builder {
+        private final String title;
+        private final Color color;
+        private final List<String[]> fields = new ArrayList<>();
+        private String description;
+
+        private Builder(String title, Color color) {
+            this.title = title;
+            this.color = color;
+        }
+
+        /**
+         * @param description Текст описания с плейсхолдерами
+         * @return Текущий экземпляр для цепочки вызовов
+         */
+        public Builder description(String description) {
+            this.description = description;
+            return this;
+        }
+
+        /**
+         * Добавляет поле, отображаемое в строку с другими полями
+         *
+         * @param name Название поля
+         * @param value Значение поля с плейсхолдерами
+         * @return Текущий экземпляр для цепочки вызовов
+         */
+        public Builder field(String name, String value) {
+            fields.add(new String[]{name, value});
+            return this;
+        }
+
+        /**
+         * Компилирует шаблон
+         *
+         * @return Шаблон
+         */
+        public WebhookTemplate build() {
+            Compiler compiler = new Compiler();
+            compiler.raw("{\"title\":\"").text(title)
+                    .raw("\",\"color\":" + (color.getRGB() & 0xFFFFFF))
+                    .raw(",\"timestamp\":\"").slot(Slot.TIMESTAMP).raw("\"");
+
+            if (description != null && !description.isEmpty()) {
+                compiler.raw(",\"description\":\"").pattern(description).raw("\"");
+            }
+
+            if (!fields.isEmpty()) {
+                compiler.raw(",\"fields\":[");
+                for (int i = 0; i < fields.size(); i++) {
+                    String[] field = fields.get(i);
+                    compiler.raw(i == 0 ? "{\"name\":\"" : ",{\"name\":\"").text(field[0])
+                            .raw("\",\"value\":\"").pattern(field[1])
+                            .raw("\",\"inline\":true}");
+                }
+                compiler.raw("]");
+            }
+
+            compiler.raw("}");
+            return compiler.finish();
+        }
+    }
+
+    /**
+     * Разбивает JSON шаблона на фрагменты и слоты
+     */
+    private static final class Compiler {
+        private final List<Object> parts = new ArrayList<>();
+        private final JsonWriter fragment = new JsonWriter(256);
+        private int staticSize;
+        private int slotCount;
+
+        private Compiler raw(String json) {
+            fragment.raw(json.getBytes(StandardCharsets.UTF_8));
+            return this;
+        }
+
+        private Compiler text(String text) {
+            fragment.escaped(text);
+            return this;
+        }
+
+        private Compiler slot(Slot slot) {
+            flush();
+            parts.add(slot);
+            slotCount++;
+            return this;
+        }
+
+        /**
+         * Добавляет текст, заменяя известные плейсхолдеры слотами.
+         * Неизвестные плейсхолдеры остаются в тексте как есть
+         */
+        private Compiler pattern(String pattern) {
+            int start = 0;
+            int open;
+            while ((open = pattern.indexOf('{', start)) >= 0) {
+                int close = pattern.indexOf('}', open + 1);
+                if (close < 0) {
+                    break;
+                }
+
+                Slot slot = slotOf(pattern.substring(open + 1, close));
+                if (slot == null) {
+                    text(pattern.substring(start, close + 1));
+                } else {
+                    text(pattern.substring(start, open));
+                    slot(slot);
+                }
+                start = close + 1;
+            }
+            return text(pattern.substring(start));
+        }
+
+        private static Slot slotOf(String name) {
+            String key = name.toUpperCase(Locale.ROOT);
+            for (Slot slot : SLOTS) {
+                if (slot != Slot.TIMESTAMP && slot.name().equals(key)) {
+                    return slot;
+                }
+            }
+            return null;
+        }
+
+        private void flush() {
+            if (fragment.size() > 0) {
+                parts.add(fragment.toByteArray());
+                staticSize += fragment.size();
+                fragment.reset();
+            }
+        }
+
+        private WebhookTemplate finish() {
+            flush();
+            return new WebhookTemplate(parts.toArray(), staticSize + slotCount * SLOT_SIZE_HINT);
+        }
+    }
+}
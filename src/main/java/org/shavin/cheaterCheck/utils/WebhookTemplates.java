@@ -0,0 +1,136 @@
+package org.shavin.cheaterCheck.utils;
+
+import org.shavin.cheaterCheck.CheaterCheck;
+
+import java.awt.Color;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Набор скомпилированных шаблонов логов Discord.
+ * Собирается целиком при загрузке конфигурации и после этого не изменяется,
+ * поэтому перезагрузка просто подменяет ссылку на новый набор
+ */
+public final class WebhookTemplates {
+
+    /**
+     * События, которые логируются в Discord
+     */
+    public enum Event {
+        CHECK_START,
+        CHECK_FINISH_CLEAN,
+        CHECK_FINISH_BANNED,
+        PLAYER_QUIT,
+        PLAYER_QUIT_BANNED,
+        FREEZE,
+        UNFREEZE,
+        SCREENSHARE,
+        ADD_TIME,
+        TIMER_PAUSE,
+        TIMER_RESUME,
+        SET_LOCATION,
+        SETTINGS_UPDATE
+    }
+
+    private final String url;
+    private final String username;
+    private final String avatarUrl;
+    private final Map<Event, WebhookTemplate> templates;
+
+    private WebhookTemplates(String url, String username, String avatarUrl, Map<Event, WebhookTemplate> templates) {
+        this.url = url;
+        this.username = username;
+        this.avatarUrl = avatarUrl;
+        this.templates = templates;
+    }
+
+    /**
+     * Компилирует шаблоны всех событий
+     *
+     * @param plugin Экземпляр плагина
+     * @param url URL вебхука
+     * @param username Имя отправителя вебхука
+     * @param avatarUrl URL аватара вебхука
+     * @return Набор шаблонов
+     */
+    public static WebhookTemplates compile(CheaterCheck plugin, String url, String username, String avatarUrl) {
+        String webhookUrl = url;
+        if (webhookUrl != null && !webhookUrl.isEmpty()) {
+            try {
+                new URL(webhookUrl);
+            } catch (MalformedURLException e) {
+                plugin.getLogger().severe("Некорректный URL вебхука Discord: " + e.getMessage());
+                webhookUrl = null;
+            }
+        }
+
+        Map<Event, WebhookTemplate> templates = new EnumMap<>(Event.class);
+        templates.put(Event.CHECK_START, check("Начата проверка", new Color(255, 165, 0),
+                "Игрок был вызван на проверку"));
+        templates.put(Event.CHECK_FINISH_BANNED, check("Завершена проверка", new Color(255, 0, 0),
+                "Игрок был забанен за использование чита: {cheat}"));
+        templates.put(Event.CHECK_FINISH_CLEAN, check("Завершена проверка", new Color(0, 255, 0),
+                "Игрок был проверен и признан чистым"));
+        templates.put(Event.PLAYER_QUIT, check("Выход игрока во время проверки", new Color(128, 0, 128),
+                "Игрок вышел во время проверки"));
+        templates.put(Event.PLAYER_QUIT_BANNED, check("Выход игрока во время проверки", new Color(128, 0, 128),
+                "Игрок вышел во время проверки и был автоматически забанен"));
+        templates.put(Event.FREEZE, check("Заморозка игрока", new Color(0, 191, 255),
+                "Игрок был заморожен\n{details}"));
+        templates.put(Event.UNFREEZE, check("Разморозка игрока", new Color(30, 144, 255),
+                "Игрок был разморожен\n{details}"));
+        templates.put(Event.SCREENSHARE, check("Запрос скриншота", new Color(255, 215, 0),
+                "У игрока был запрошен скриншот"));
+        templates.put(Event.ADD_TIME, check("Добавление времени проверки", new Color(255, 140, 0),
+                "К проверке добавлено {duration} секунд"));
+        templates.put(Event.TIMER_PAUSE, check("Пауза таймера проверки", new Color(169, 169, 169),
+                "Таймер проверки поставлен на паузу"));
+        templates.put(Event.TIMER_RESUME, check("Возобновление таймера проверки", new Color(50, 205, 50),
+                "Таймер проверки возобновлен"));
+        templates.put(Event.SET_LOCATION, WebhookTemplate.builder("**Установка локации проверки**", new Color(75, 0, 130))
+                .field("Администратор", "{staff}")
+                .description("Установлена новая локация для проверок: {details}")
+                .build());
+        templates.put(Event.SETTINGS_UPDATE, WebhookTemplate.builder("**Обновление настроек плагина**", new Color(70, 130, 180))
+                .field("Администратор", "{staff}")
+                .field("Тип настройки", "{setting}")
+                .description("{details}")
+                .build());
+
+        return new WebhookTemplates(webhookUrl, username, avatarUrl, templates);
+    }
+
+    /**
+     * Шаблон события проверки: заголовок, игрок, администратор и описание
+     */
+    private static WebhookTemplate check(String action, Color color, String description) {
+        return WebhookTemplate.builder("**" + action + "**", color)
+                .field("Игрок", "{player}")
+                .field("Администратор", "{staff}")
+                .description(description)
+                .build();
+    }
+
+    /**
+     * @return true, если URL вебхука указан и корректен
+     */
+    public boolean isConfigured() {
+        return url != null && !url.isEmpty();
+    }
+
+    /**
+     * Заполняет шаблон события и создает сообщение для отправки
+     *
+     * @param event Событие
+     * @param values Значения слотов
+     * @return Сообщение или null, если вебхук не настроен
+     */
+    public WebhookMessage createMessage(Event event, WebhookTemplate.Values values) {
+        if (!isConfigured()) {
+            return null;
+        }
+        return WebhookMessage.ofEmbed(url, username, avatarUrl, templates.get(event).render(values));
+    }
+}
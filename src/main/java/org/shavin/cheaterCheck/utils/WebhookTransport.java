@@ -0,0 +1,23 @@
+package org.shavin.cheaterCheck.utils;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Транспорт для отправки вебхуков. Позволяет подменить Discord локальным сервером-заглушкой
+ */
+public interface WebhookTransport {
+
+    /**
+     * Асинхронно отправляет POST запрос с JSON телом
+     *
+     * @param url URL вебхука
+     * @param body Тело запроса в UTF-8
+     * @return Future с ответом сервера
+     */
+    CompletableFuture<WebhookResponse> post(String url, byte[] body);
+
+    /**
+     * Освобождает ресурсы транспорта
+     */
+    void close();
+}
@@ -0,0 +1,153 @@
+package org.shavin.cheaterCheck;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.Server;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.EventExecutor;
+import org.bukkit.plugin.PluginManager;
+import org.bukkit.plugin.RegisteredListener;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.mockito.MockSettings;
+import org.mockito.invocation.InvocationOnMock;
+import org.shavin.cheaterCheck.configs.PluginConfig;
+import org.shavin.cheaterCheck.managers.MessageManager;
+import org.shavin.cheaterCheck.utils.Config;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Минимальное окружение Bukkit для тестов и бенчмарков.
+ * Сервер, плагин и настройки - заглушки Mockito, которые не записывают вызовы (stubOnly),
+ * поэтому длительные бенчмарки не накапливают историю. Слушатели регистрируются в настоящих
+ * {@link HandlerList}, как это делает сервер, так что события проходят тот же путь, что и в игре
+ */
+public final class TestServer {
+    private final Logger logger = Logger.getLogger("CheaterCheckTest");
+    private final List<Player> onlinePlayers = new ArrayList<>();
+    private final Map<UUID, Player> playersByUuid = new HashMap<>();
+    private final Server server;
+    private final CheaterCheck plugin;
+    private final Config config;
+    private final PluginConfig extendedConfig;
+
+    public TestServer() {
+        logger.setLevel(Level.WARNING);
+
+        server = mock(Server.class, stubOnly());
+        PluginManager pluginManager = mock(PluginManager.class, stubOnly());
+        doAnswer(this::registerEvents).when(pluginManager).registerEvents(any(), any());
+        doReturn(onlinePlayers).when(server).getOnlinePlayers();
+        when(server.getPlayer(any(UUID.class))).thenAnswer(invocation -> playersByUuid.get(invocation.<UUID>getArgument(0)));
+        when(server.getPluginManager()).thenReturn(pluginManager);
+        when(server.getScheduler()).thenReturn(mock(BukkitScheduler.class, stubOnly()));
+        when(server.getLogger()).thenReturn(logger);
+        install(server);
+
+        config = mock(Config.class, stubOnly());
+        extendedConfig = mock(PluginConfig.class, stubOnly());
+        plugin = mock(CheaterCheck.class, stubOnly());
+        when(plugin.getLogger()).thenReturn(logger);
+        when(plugin.getServer()).thenReturn(server);
+        when(plugin.isEnabled()).thenReturn(true);
+        when(plugin.getPluginConfig()).thenReturn(config);
+        when(plugin.getExtendedConfig()).thenReturn(extendedConfig);
+        when(plugin.getMessageManager()).thenReturn(mock(MessageManager.class, stubOnly()));
+    }
+
+    /**
+     * Подменяет сервер Bukkit. Bukkit.setServer не подходит: он запрещает повторную установку
+     * и требует сведений о сборке сервера
+     */
+    private static void install(Server server) {
+        try {
+            Field field = Bukkit.class.getDeclaredField("server");
+            field.setAccessible(true);
+            field.set(null, server);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Не удалось установить тестовый сервер", e);
+        }
+    }
+
+    private static MockSettings stubOnly() {
+        return withSettings().stubOnly();
+    }
+
+    /**
+     * Регистрирует обработчики слушателя так же, как сервер: по одному RegisteredListener на метод
+     */
+    private Object registerEvents(InvocationOnMock invocation) throws ReflectiveOperationException {
+        Listener listener = invocation.getArgument(0);
+        for (Method method : listener.getClass().getMethods()) {
+            EventHandler handler = method.getAnnotation(EventHandler.class);
+            if (handler == null) {
+                continue;
+            }
+            Class<? extends Event> eventClass = method.getParameterTypes()[0].asSubclass(Event.class);
+            HandlerList handlers = (HandlerList) eventClass.getMethod("getHandlerList").invoke(null);
+            handlers.register(new RegisteredListener(listener, EventExecutor.create(method, eventClass),
+                    handler.priority(), invocation.getArgument(1), handler.ignoreCancelled()));
+        }
+        return null;
+    }
+
+    /**
+     * Добавляет игрока на сервер
+     *
+     * @param name Имя игрока
+     * @return Заглушка игрока
+     */
+    public Player addPlayer(String name) {
+        UUID uuid = UUID.nameUUIDFromBytes(name.getBytes());
+        Player player = mock(Player.class, stubOnly());
+        when(player.getUniqueId()).thenReturn(uuid);
+        when(player.getName()).thenReturn(name);
+        when(player.isOnline()).thenReturn(true);
+        when(player.getLocation()).thenReturn(new Location(null, 0, 64, 0));
+        onlinePlayers.add(player);
+        playersByUuid.put(uuid, player);
+        return player;
+    }
+
+    /**
+     * Снимает все слушатели плагина, зарегистрированные во время теста
+     */
+    public void close() {
+        HandlerList.unregisterAll(plugin);
+    }
+
+    public CheaterCheck getPlugin() {
+        return plugin;
+    }
+
+    public Config getConfig() {
+        return config;
+    }
+
+    public PluginConfig getExtendedConfig() {
+        return extendedConfig;
+    }
+
+    public List<Player> getOnlinePlayers() {
+        return onlinePlayers;
+    }
+}
@@ -0,0 +1,89 @@
+package org.shavin.cheaterCheck.listeners;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventException;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.plugin.RegisteredListener;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.shavin.cheaterCheck.TestServer;
+import org.shavin.cheaterCheck.managers.FreezeManager;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.when;
+
+/**
+ * Стоимость события движения для 500 игроков онлайн при 0 и 5 замороженных.
+ * Событие проходит через зарегистрированные обработчики так же, как в PluginManager.callEvent,
+ * поэтому при отсутствии заморозок замер показывает, что слушатель заморозки снят
+ * и движение не проверяется вовсе.
+ * <p>
+ * Запуск: {@code mvn -P benchmarks test-compile exec:exec -Djmh.args=FreezeListenerBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FreezeListenerBenchmark {
+    private static final int PLAYERS = 500;
+
+    @Param({"0", "5"})
+    public int frozen;
+
+    private TestServer server;
+    private Player[] online;
+    private Location from;
+    private Location to;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        server = new TestServer();
+        FreezeManager freezeManager = new FreezeManager(server.getPlugin());
+        when(server.getPlugin().getFreezeManager()).thenReturn(freezeManager);
+
+        online = new Player[PLAYERS];
+        for (int i = 0; i < PLAYERS; i++) {
+            online[i] = server.addPlayer("player" + i);
+        }
+        // Замороженные игроки распределены по списку, чтобы их события перемежались с остальными
+        for (int i = 0; i < frozen; i++) {
+            freezeManager.freezePlayer(online[i * (PLAYERS / frozen)]);
+        }
+
+        from = new Location(null, 0, 64, 0);
+        to = new Location(null, 0.2, 64, 0.1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.close();
+    }
+
+    @Benchmark
+    public boolean onPlayerMove() throws EventException {
+        Player player = online[next];
+        next = next + 1 == online.length ? 0 : next + 1;
+
+        PlayerMoveEvent event = new PlayerMoveEvent(player, from, to);
+        for (RegisteredListener listener : PlayerMoveEvent.getHandlerList().getRegisteredListeners()) {
+            listener.callEvent(event);
+        }
+        return event.isCancelled();
+    }
+}
@@ -0,0 +1,75 @@
+package org.shavin.cheaterCheck.managers;
+
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.shavin.cheaterCheck.TestServer;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.when;
+
+/**
+ * Время {@link AfkManager#isPlayerAfk(Player)} в зависимости от числа игроков на сервере.
+ * Проверка не обходит игроков, поэтому результат для 1000 игроков должен совпадать с результатом для 10.
+ * Половина игроков переведена в AFK, чтобы в замер попадали обе ветки.
+ * <p>
+ * Запуск: {@code mvn -P benchmarks test-compile exec:exec -Djmh.args=AfkManagerBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AfkManagerBenchmark {
+    @Param({"10", "100", "1000"})
+    public int players;
+
+    private TestServer server;
+    private AfkManager afkManager;
+    private Player[] online;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        server = new TestServer();
+        when(server.getConfig().isAfkCheckEnabled()).thenReturn(true);
+        when(server.getConfig().getAfkTimeout()).thenReturn(300);
+
+        online = new Player[players];
+        for (int i = 0; i < players; i++) {
+            online[i] = server.addPlayer("player" + i);
+        }
+        afkManager = new AfkManager(server.getPlugin());
+        for (int i = 0; i < players; i++) {
+            afkManager.updatePlayerActivity(online[i]);
+            if (i % 2 == 0) {
+                afkManager.setPlayerAfk(online[i], true);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.close();
+    }
+
+    @Benchmark
+    public boolean isPlayerAfk() {
+        Player player = online[next];
+        next = next + 1 == online.length ? 0 : next + 1;
+        return afkManager.isPlayerAfk(player);
+    }
+}
@@ -0,0 +1,108 @@
+package org.shavin.cheaterCheck.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сериализация типичного лога заморозки: {@link JsonWriter} против прежнего {@link LegacyJSONUtils}.
+ * Прежний путь повторяет старый DiscordWebhook.execute: сборка Map из embed-объекта, toJson и getBytes.
+ * Главная метрика - выделенная память на сообщение, поэтому запускать нужно с профилировщиком GC
+ * и сравнивать gc.alloc.rate.norm (байт на операцию):
+ * <p>
+ * {@code mvn -P benchmarks test-compile exec:exec "-Djmh.args=JsonWriterBenchmark -prof gc"}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonWriterBenchmark {
+    private static final String TITLE = "Заморозка игрока";
+    private static final String DESCRIPTION = "Игрок **Steve_123** был заморожен для проверки на читы";
+    private static final Color COLOR = new Color(0x3498DB);
+    private static final Instant TIMESTAMP = Instant.parse("2024-05-01T12:00:00Z");
+    private static final String FOOTER = "CheaterCheck";
+
+    private DiscordWebhook webhook;
+    private JsonWriter writer;
+
+    // Состояние прежнего EmbedObject: подвал и поля хранились в Map с момента добавления
+    private Map<String, String> legacyFooter;
+    private List<Map<String, Object>> legacyFields;
+
+    @Setup
+    public void setUp() throws IOException {
+        webhook = new DiscordWebhook(null, "https://discord.com/api/webhooks/1/token");
+        webhook.setUsername("CheaterCheck");
+        webhook.addEmbed(new DiscordWebhook.EmbedObject()
+                .setTitle(TITLE)
+                .setDescription(DESCRIPTION)
+                .setColor(COLOR)
+                .setTimestamp(TIMESTAMP)
+                .addField("Администратор", "Admin", true)
+                .addField("Источник", "команда /freeze", true)
+                .addField("Проверка", "#42", false)
+                .setFooter(FOOTER, null));
+        writer = new JsonWriter(4096);
+
+        legacyFooter = new HashMap<>();
+        legacyFooter.put("text", FOOTER);
+        legacyFooter.put("icon_url", null);
+        legacyFields = new ArrayList<>();
+        legacyFields.add(legacyField("Администратор", "Admin", true));
+        legacyFields.add(legacyField("Источник", "команда /freeze", true));
+        legacyFields.add(legacyField("Проверка", "#42", false));
+    }
+
+    private static Map<String, Object> legacyField(String name, String value, boolean inline) {
+        Map<String, Object> field = new HashMap<>();
+        field.put("name", name);
+        field.put("value", value);
+        field.put("inline", inline);
+        return field;
+    }
+
+    @Benchmark
+    public byte[] jsonWriter() {
+        return webhook.writeJson(writer.reset(), webhook.getEmbeds()).toByteArray();
+    }
+
+    @Benchmark
+    public byte[] legacyToJson() {
+        Map<String, Object> embedMap = new HashMap<>();
+        embedMap.put("title", TITLE);
+        embedMap.put("description", DESCRIPTION);
+        embedMap.put("color", COLOR.getRGB() & 0xFFFFFF);
+        embedMap.put("timestamp", TIMESTAMP.toString());
+        embedMap.put("footer", legacyFooter);
+        embedMap.put("fields", legacyFields);
+
+        Map<String, Object> jsonData = new HashMap<>();
+        jsonData.put("content", null);
+        jsonData.put("username", "CheaterCheck");
+        jsonData.put("avatar_url", null);
+        jsonData.put("tts", false);
+        jsonData.put("embeds", new ArrayList<>(Collections.singletonList(embedMap)));
+
+        return LegacyJSONUtils.toJson(jsonData).getBytes();
+    }
+}
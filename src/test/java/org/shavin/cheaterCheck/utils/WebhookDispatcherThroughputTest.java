@@ -0,0 +1,132 @@
+package org.shavin.cheaterCheck.utils;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.shavin.cheaterCheck.CheaterCheck;
+
+import java.awt.Color;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Пропускная способность диспетчера вебхуков с настоящим HTTP транспортом и журналом на диске.
+ * Вместо Discord запросы принимает локальный {@link HttpServer}, который отвечает 204 без задержки,
+ * поэтому замер показывает собственный предел диспетчера: запись в журнал, объединение и отправку
+ */
+class WebhookDispatcherThroughputTest {
+    private static final int EVENTS = 5000;
+    private static final Pattern EVENT_TITLE = Pattern.compile("\"title\":\"event-(\\d+)\"");
+
+    @TempDir
+    File dataFolder;
+
+    private final List<Integer> received = new ArrayList<>();
+    private final AtomicInteger requests = new AtomicInteger();
+    private HttpServer server;
+    private HttpClientWebhookTransport transport;
+    private WebhookDispatcher dispatcher;
+    private CheaterCheck plugin;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/webhook", exchange -> {
+            String body;
+            try (InputStream in = exchange.getRequestBody()) {
+                body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            requests.incrementAndGet();
+            synchronized (received) {
+                Matcher matcher = EVENT_TITLE.matcher(body);
+                while (matcher.find()) {
+                    received.add(Integer.parseInt(matcher.group(1)));
+                }
+                received.notifyAll();
+            }
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        });
+        server.start();
+
+        Logger logger = Logger.getLogger("CheaterCheckTest");
+        logger.setLevel(Level.WARNING);
+        plugin = mock(CheaterCheck.class);
+        when(plugin.getLogger()).thenReturn(logger);
+        when(plugin.getDataFolder()).thenReturn(dataFolder);
+
+        transport = new HttpClientWebhookTransport();
+        dispatcher = new WebhookDispatcher(plugin, transport, 1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+        transport.close();
+        server.stop(0);
+    }
+
+    @Test
+    void deliversSustainedLoadInOrder() throws Exception {
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/webhook";
+
+        long start = System.nanoTime();
+        List<CompletableFuture<Void>> accepted = new ArrayList<>(EVENTS);
+        for (int i = 0; i < EVENTS; i++) {
+            accepted.add(dispatcher.submit(event(url, i)));
+        }
+        CompletableFuture.allOf(accepted.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+
+        long deadline = System.currentTimeMillis() + 60000L;
+        synchronized (received) {
+            while (received.size() < EVENTS && System.currentTimeMillis() < deadline) {
+                received.wait(100L);
+            }
+        }
+        long elapsedNanos = System.nanoTime() - start;
+
+        synchronized (received) {
+            assertEquals(EVENTS, received.size(), "Доставлены не все события");
+            for (int i = 0; i < EVENTS; i++) {
+                assertEquals(i, received.get(i), "Нарушен порядок доставки");
+            }
+        }
+        assertEquals(0, dispatcher.getSpilledCount());
+        assertEquals(0, dispatcher.getFailedCount());
+        assertTrue(requests.get() < EVENTS, "События не объединялись в пакеты");
+
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        System.out.printf("Вебхуки: %d событий за %.2f с (%.0f событий/с), HTTP запросов: %d%n",
+                EVENTS, seconds, EVENTS / seconds, requests.get());
+    }
+
+    private DiscordWebhook event(String url, int index) throws IOException {
+        DiscordWebhook webhook = new DiscordWebhook(plugin, url);
+        webhook.setUsername("CheaterCheck");
+        webhook.addEmbed(new DiscordWebhook.EmbedObject()
+                .setTitle("event-" + index)
+                .setDescription("Игрок player" + index + " был заморожен")
+                .setColor(Color.ORANGE)
+                .addField("Администратор", "Console", true));
+        return webhook;
+    }
+}